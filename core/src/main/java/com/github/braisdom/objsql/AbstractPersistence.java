@@ -17,8 +17,11 @@
 package com.github.braisdom.objsql;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * The class provides abstracted method of SQL construction.
@@ -28,13 +31,19 @@ import java.util.Optional;
 public abstract class AbstractPersistence<T> implements Persistence<T> {
 
     private static final String INSERT_TEMPLATE = "INSERT INTO %s (%s) VALUES (%s)";
+    private static final String INSERT_ROWS_TEMPLATE = "INSERT INTO %s (%s) VALUES %s";
     private static final String UPDATE_STATEMENT = "UPDATE %s SET %s WHERE %s";
     private static final String DELETE_STATEMENT = "DELETE FROM %s WHERE %s";
+    private static final String ON_CONFLICT_TEMPLATE = "%s ON CONFLICT (%s) DO UPDATE SET %s";
+    private static final String ON_CONFLICT_NOTHING_TEMPLATE = "%s ON CONFLICT (%s) DO NOTHING";
+    private static final String ON_DUPLICATE_KEY_TEMPLATE = "%s ON DUPLICATE KEY UPDATE %s";
+    private static final String MERGE_TEMPLATE = "MERGE INTO %s target USING %s ON (%s)%s "
+            + "WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s)";
 
     protected final DomainModelDescriptor domainModelDescriptor;
 
     public AbstractPersistence(Class<T> domainClass) {
-        this(new BeanModelDescriptor(domainClass));
+        this(BeanModelDescriptor.of(domainClass));
     }
 
     public AbstractPersistence(DomainModelDescriptor domainModelDescriptor) {
@@ -43,20 +52,51 @@ public abstract class AbstractPersistence<T> implements Persistence<T> {
         this.domainModelDescriptor = domainModelDescriptor;
     }
 
+    @Override
+    public CompletableFuture<T> insertAsync(T dirtyObject, boolean skipValidation) {
+        return Databases.executeAsync(getDataSourceName(), () -> insert(dirtyObject, skipValidation));
+    }
+
+    @Override
+    public CompletableFuture<int[]> insertAsync(T[] dirtyObjects, boolean skipValidation) {
+        return Databases.executeAsync(getDataSourceName(), () -> insert(dirtyObjects, skipValidation));
+    }
+
+    @Override
+    public CompletableFuture<T> saveAsync(T dirtyObject, boolean skipValidation) {
+        return Databases.executeAsync(getDataSourceName(), () -> save(dirtyObject, skipValidation));
+    }
+
+    @Override
+    public CompletableFuture<T> updateAsync(Object id, T dirtyObject, boolean skipValidation) {
+        return Databases.executeAsync(getDataSourceName(), () -> update(id, dirtyObject, skipValidation));
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteAsync(Object id) {
+        return Databases.executeAsync(getDataSourceName(), () -> delete(id));
+    }
+
+    protected String getDataSourceName() {
+        return Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+    }
+
     protected String formatInsertSql(String tableName, String[] columnNames, String[] quotedColumnNames) {
-        String[] valuesPlaceHolder = Arrays.stream(columnNames)
-                .map(columnName -> {
-                    String fieldName = domainModelDescriptor.getFieldName(columnName);
-                    Optional invariableValue = domainModelDescriptor.getFieldDefaultValue(fieldName);
-                    if(invariableValue.isPresent()) {
-                        return invariableValue.get();
-                    } else {
-                        return "?";
-                    }
-                }).toArray(String[]::new);
+        String[] valuesPlaceHolder = getValuesPlaceHolder(columnNames);
         return formatInsertSql(tableName, quotedColumnNames, String.join(",", valuesPlaceHolder));
     }
 
+    /**
+     * Formats a multi-row insert statement, which inserts <code>rowCount</code> rows
+     * with the same values placeholder.
+     */
+    protected String formatInsertSql(String tableName, String[] columnNames,
+                                     String[] quotedColumnNames, int rowCount) {
+        String rowValues = String.format("(%s)", String.join(",", getValuesPlaceHolder(columnNames)));
+        return String.format(INSERT_ROWS_TEMPLATE, tableName, String.join(",", quotedColumnNames),
+                String.join(",", Collections.nCopies(rowCount, rowValues)));
+    }
+
     protected String formatInsertSql(String tableName, String[] columnNames, String values) {
         return String.format(INSERT_TEMPLATE, tableName, String.join(",", columnNames), values);
     }
@@ -68,4 +108,89 @@ public abstract class AbstractPersistence<T> implements Persistence<T> {
     protected String formatDeleteSql(String tableName, String predicate) {
         return String.format(DELETE_STATEMENT, tableName, predicate);
     }
+
+    /**
+     * Formats an upsert statement of <code>rowCount</code> rows for the dialect, the rows
+     * conflicting at <code>conflictColumnNames</code> will be updated with the
+     * <code>updateColumnNames</code>. Oracle merges only one row in a statement.
+     */
+    protected String formatUpsertSql(DatabaseDialect dialect, String tableName, String[] columnNames,
+                                     String[] conflictColumnNames, String[] updateColumnNames, int rowCount) {
+        String[] quotedColumnNames = dialect.quoteColumnNames(columnNames);
+        String[] quotedConflictColumnNames = dialect.quoteColumnNames(conflictColumnNames);
+        String[] quotedUpdateColumnNames = dialect.quoteColumnNames(updateColumnNames);
+
+        switch (dialect.getDatabaseType()) {
+            case PostgreSQL:
+            case SQLite: {
+                String insertSql = formatInsertSql(tableName, columnNames, quotedColumnNames, rowCount);
+                if (quotedUpdateColumnNames.length == 0) {
+                    return String.format(ON_CONFLICT_NOTHING_TEMPLATE, insertSql,
+                            String.join(",", quotedConflictColumnNames));
+                }
+                String updates = Arrays.stream(quotedUpdateColumnNames)
+                        .map(columnName -> String.format("%s=EXCLUDED.%s", columnName, columnName))
+                        .collect(Collectors.joining(","));
+                return String.format(ON_CONFLICT_TEMPLATE, insertSql,
+                        String.join(",", quotedConflictColumnNames), updates);
+            }
+            case MySQL:
+            case MariaDB: {
+                String insertSql = formatInsertSql(tableName, columnNames, quotedColumnNames, rowCount);
+                String[] assignedColumnNames = quotedUpdateColumnNames.length == 0
+                        ? quotedConflictColumnNames : quotedUpdateColumnNames;
+                String updates = Arrays.stream(assignedColumnNames)
+                        .map(columnName -> String.format("%s=VALUES(%s)", columnName, columnName))
+                        .collect(Collectors.joining(","));
+                return String.format(ON_DUPLICATE_KEY_TEMPLATE, insertSql, updates);
+            }
+            case Oracle:
+            case MsSqlServer: {
+                String[] valuesPlaceHolder = getValuesPlaceHolder(columnNames);
+                String source;
+                if (dialect.is(DatabaseType.Oracle)) {
+                    String[] selections = new String[columnNames.length];
+                    for (int i = 0; i < selections.length; i++) {
+                        selections[i] = String.format("%s %s", valuesPlaceHolder[i], quotedColumnNames[i]);
+                    }
+                    source = String.format("(SELECT %s FROM DUAL) source", String.join(",", selections));
+                } else {
+                    String rowValues = String.format("(%s)", String.join(",", valuesPlaceHolder));
+                    source = String.format("(VALUES %s) AS source (%s)",
+                            String.join(",", Collections.nCopies(rowCount, rowValues)),
+                            String.join(",", quotedColumnNames));
+                }
+                String joinCondition = Arrays.stream(quotedConflictColumnNames)
+                        .map(columnName -> String.format("target.%s = source.%s", columnName, columnName))
+                        .collect(Collectors.joining(" AND "));
+                String matchedUpdate = quotedUpdateColumnNames.length == 0 ? "" : " WHEN MATCHED THEN UPDATE SET "
+                        + Arrays.stream(quotedUpdateColumnNames)
+                        .map(columnName -> String.format("target.%s = source.%s", columnName, columnName))
+                        .collect(Collectors.joining(","));
+                String sourceValues = Arrays.stream(quotedColumnNames)
+                        .map(columnName -> "source." + columnName)
+                        .collect(Collectors.joining(","));
+                String sql = String.format(MERGE_TEMPLATE, tableName, source, joinCondition, matchedUpdate,
+                        String.join(",", quotedColumnNames), sourceValues);
+                // The MERGE statement of SQL Server must be terminated by a semicolon
+                return dialect.is(DatabaseType.MsSqlServer) ? sql + ";" : sql;
+            }
+            default:
+                throw new UnsupportedOperationException(String.format("The upsert is unsupported for %s",
+                        dialect.getDatabaseName()));
+        }
+    }
+
+    private String[] getValuesPlaceHolder(String[] columnNames) {
+        return Arrays.stream(columnNames)
+                .map(columnName -> {
+                    String fieldName = domainModelDescriptor.getFieldName(columnName);
+                    Optional invariableValue = domainModelDescriptor.getFieldDefaultValue(fieldName);
+                    if(invariableValue.isPresent()) {
+                        return invariableValue.get();
+                    } else {
+                        return "?";
+                    }
+                }).toArray(String[]::new);
+    }
 }
@@ -16,9 +16,12 @@
  */
 package com.github.braisdom.objsql;
 
+import com.github.braisdom.objsql.relation.Relationship;
+
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The class provides the default implementations of structure of SQL
@@ -30,6 +33,8 @@ public abstract class AbstractQuery<T> implements Query<T> {
 
     protected int limit = -1;
     protected int offset = -1;
+    protected int fetchSize = -1;
+    protected boolean parallelRelations;
 
     protected String projection;
     protected String filter;
@@ -39,7 +44,7 @@ public abstract class AbstractQuery<T> implements Query<T> {
     protected String having;
 
     public AbstractQuery(Class<T> domainModelClass) {
-        this(new BeanModelDescriptor<>(domainModelClass));
+        this(BeanModelDescriptor.of(domainModelClass));
     }
 
     public AbstractQuery(DomainModelDescriptor<T> domainModelDescriptor) {
@@ -89,6 +94,37 @@ public abstract class AbstractQuery<T> implements Query<T> {
         return this;
     }
 
+    @Override
+    public Query fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    @Override
+    public Query parallelRelations(boolean parallelRelations) {
+        this.parallelRelations = parallelRelations;
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<List<T>> executeAsync(Relationship... relationships) {
+        return Databases.executeAsync(getDataSourceName(), () -> execute(relationships));
+    }
+
+    @Override
+    public CompletableFuture<T> queryFirstAsync(Relationship... relationships) {
+        return Databases.executeAsync(getDataSourceName(), () -> queryFirst(relationships));
+    }
+
+    @Override
+    public QueryPublisher<T> publish() {
+        return new CursorPublisher<>(this::iterator, Databases.getExecutorService(getDataSourceName()));
+    }
+
+    protected String getDataSourceName() {
+        return Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+    }
+
     protected String getTableName(Class tableClass) {
         return Tables.getTableName(tableClass);
     }
@@ -26,6 +26,7 @@ import com.github.braisdom.objsql.transition.ColumnTransition;
 import com.github.braisdom.objsql.util.StringUtil;
 import com.github.braisdom.objsql.util.WordUtil;
 
+import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
@@ -33,6 +34,7 @@ import java.math.BigInteger;
 import java.sql.JDBCType;
 import java.sql.SQLType;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The default implementation for <code>DomainModelDescriptor</code> with JavaBean
@@ -51,12 +53,96 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
             BigInteger.class, BigDecimal.class
     });
 
+    private static final Map<Class, BeanModelDescriptor> descriptors = new ConcurrentHashMap<>();
+    private static final Map<Class, BeanModelDescriptor> skipPrimaryKeyDescriptors = new ConcurrentHashMap<>();
+
     private final Class<T> domainModelClass;
-    private final Map<String, ColumnTransition> columnTransitionMap;
+    private final DomainModel domainModel;
+    private final PrimaryKey primaryKey;
+    private final Field primaryField;
+    private final Map<String, FieldMetadata> fieldMetadataMap;
     private final Map<String, Field> columnToField;
     private final boolean skipPrimaryKeyOnInserting;
     private final boolean autoGeneratedPrimaryKey;
 
+    private volatile String[] columns;
+    private volatile String[] insertableColumns;
+    private volatile String[] updatableColumns;
+
+    /**
+     * The metadata of a declared field, which is resolved once at the descriptor
+     * constructing, and never changed later.
+     */
+    private static final class FieldMetadata {
+
+        private final Field field;
+        private final String columnName;
+        private final SQLType sqlType;
+        private final Optional<String> defaultValue;
+        private final boolean hasDefaultValue;
+        private final boolean primaryKey;
+        private final boolean primaryField;
+        private final ColumnTransition columnTransition;
+        private final PropertyDescriptor propertyDescriptor;
+
+        private FieldMetadata(Field field, DomainModel domainModel) {
+            Column column = field.getAnnotation(Column.class);
+            PrimaryKey primaryKey = field.getAnnotation(PrimaryKey.class);
+
+            this.field = field;
+            this.primaryKey = primaryKey != null;
+            this.primaryField = field.getName().equals(domainModel.primaryFieldName());
+            this.sqlType = column == null ? null : column.sqlType();
+            this.propertyDescriptor = PropertyUtils.getPropertyDescriptorByName(
+                    field.getDeclaringClass(), field.getName());
+
+            if (primaryKey != null) {
+                this.columnName = StringUtil.isBlank(primaryKey.name())
+                        ? WordUtil.underscore(field.getName()) : primaryKey.name();
+            } else if (column != null) {
+                this.columnName = StringUtil.isBlank(column.name())
+                        ? WordUtil.underscore(field.getName()) : column.name();
+            } else {
+                this.columnName = WordUtil.underscore(field.getName());
+            }
+
+            if (primaryField && !WordUtil.isEmpty(domainModel.primaryKeyDefaultValue())) {
+                this.defaultValue = Optional.of(domainModel.primaryKeyDefaultValue());
+            } else if (column != null && !WordUtil.isEmpty(column.defaultValue())) {
+                this.defaultValue = Optional.of(column.defaultValue());
+            } else {
+                this.defaultValue = Optional.empty();
+            }
+
+            if (primaryField) {
+                this.hasDefaultValue = !WordUtil.isEmpty(domainModel.primaryKeyDefaultValue());
+            } else {
+                this.hasDefaultValue = column != null && !WordUtil.isEmpty(column.defaultValue());
+            }
+
+            if (column != null && !column.transition().equals(ColumnTransition.class)) {
+                this.columnTransition = ClassUtils.createNewInstance(column.transition());
+            } else {
+                this.columnTransition = null;
+            }
+        }
+
+        private Object read(Object bean) {
+            if (propertyDescriptor == null) {
+                return PropertyUtils.read(bean, field.getName());
+            }
+            return PropertyUtils.read(bean, propertyDescriptor);
+        }
+
+        private void write(Object bean, Object value) {
+            if (propertyDescriptor == null) {
+                PropertyUtils.write(bean, field.getName(), value);
+            } else {
+                PropertyUtils.write(bean, propertyDescriptor, value);
+            }
+        }
+    }
+
     private class DefaultFieldValue implements FieldValue {
 
         private final SQLType sqlType;
@@ -108,17 +194,48 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
             throw new DomainModelException(String.format("The %s has no primary key", domainModelClass.getSimpleName()));
         }
 
-        DomainModel domainModel = domainModelClass.getAnnotation(DomainModel.class);
-
         this.domainModelClass = domainModelClass;
+        this.domainModel = domainModelClass.getAnnotation(DomainModel.class);
+        this.primaryKey = Tables.getPrimaryKey(domainModelClass);
+        this.primaryField = Tables.getPrimaryField(domainModelClass);
         this.skipPrimaryKeyOnInserting = skipPrimaryKeyOnInserting;
-        this.columnTransitionMap = new HashMap<>();
-        this.columnToField = new HashMap<>();
-
         this.autoGeneratedPrimaryKey = domainModel.autoGeneratedPrimaryKey();
 
-        prepareColumnToPropertyOverrides(domainModelClass);
-        instantiateColumnTransitionMap(domainModelClass.getDeclaredFields());
+        Map<String, FieldMetadata> fieldMetadataMap = new HashMap<>();
+        Map<String, Field> columnToField = new HashMap<>();
+        for (Field field : domainModelClass.getDeclaredFields()) {
+            FieldMetadata fieldMetadata = new FieldMetadata(field, domainModel);
+            fieldMetadataMap.put(field.getName(), fieldMetadata);
+            columnToField.put(fieldMetadata.columnName, field);
+            columnToField.put(fieldMetadata.columnName.toUpperCase(), field);
+        }
+        this.fieldMetadataMap = Collections.unmodifiableMap(fieldMetadataMap);
+        this.columnToField = Collections.unmodifiableMap(columnToField);
+    }
+
+    /**
+     * Returns the descriptor shared by whole process for the domain model class,
+     * the fields and the <code>ColumnTransition</code> of the class are resolved only
+     * once, so the <code>ColumnTransition</code> must be thread-safe.
+     *
+     * @param domainModelClass the class of domain model
+     * @return the shared descriptor
+     */
+    public static <T> BeanModelDescriptor<T> of(Class<T> domainModelClass) {
+        return of(domainModelClass, false);
+    }
+
+    public static <T> BeanModelDescriptor<T> of(Class<T> domainModelClass, boolean skipPrimaryKeyOnInserting) {
+        Objects.requireNonNull(domainModelClass, "The domainModelClass cannot be null");
+
+        Map<Class, BeanModelDescriptor> cachedDescriptors = skipPrimaryKeyOnInserting
+                ? skipPrimaryKeyDescriptors : descriptors;
+        BeanModelDescriptor<T> descriptor = cachedDescriptors.get(domainModelClass);
+        if (descriptor == null) {
+            descriptor = cachedDescriptors.computeIfAbsent(domainModelClass,
+                    clazz -> new BeanModelDescriptor(clazz, skipPrimaryKeyOnInserting));
+        }
+        return descriptor;
     }
 
     @Override
@@ -128,7 +245,6 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
 
     @Override
     public void setGeneratedKey(T bean, Object primaryKeyValue) {
-        Field primaryField = Tables.getPrimaryField(domainModelClass);
         if (primaryKeyValue instanceof BigInteger) {
             primaryKeyValue = Long.valueOf(primaryKeyValue.toString());
         }
@@ -142,13 +258,16 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
 
     @Override
     public DomainModelDescriptor getRelatedModeDescriptor(Class relatedClass) {
-        return new BeanModelDescriptor(relatedClass);
+        return BeanModelDescriptor.of(relatedClass);
     }
 
     @Override
     public String[] getColumns() {
-        return Arrays.stream(getColumnizableFields(domainModelClass, true, true))
-                .map(field -> getColumnName(field)).toArray(String[]::new);
+        if (columns == null) {
+            columns = Arrays.stream(getColumnizableFields(domainModelClass, true, true))
+                    .map(field -> getColumnName(field)).toArray(String[]::new);
+        }
+        return columns.clone();
     }
 
     @Override
@@ -158,7 +277,7 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
 
     @Override
     public PrimaryKey getPrimaryKey() {
-        return Tables.getPrimaryKey(domainModelClass);
+        return primaryKey;
     }
 
     @Override
@@ -168,22 +287,28 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
 
     @Override
     public boolean skipNullOnUpdate() {
-        return domainModelClass.getAnnotation(DomainModel.class).skipNullValueOnUpdating();
+        return domainModel.skipNullValueOnUpdating();
     }
 
     @Override
     public String[] getInsertableColumns() {
-        return Arrays.stream(getColumnizableFields(domainModelClass, true, false))
-                .filter(field -> skipPrimaryKeyOnInserting ? field.getAnnotation(PrimaryKey.class) == null : true)
-                .filter(field -> autoGeneratedPrimaryKey ? field.getAnnotation(PrimaryKey.class) == null : true)
-                .map(field -> getColumnName(field)).toArray(String[]::new);
+        if (insertableColumns == null) {
+            insertableColumns = Arrays.stream(getColumnizableFields(domainModelClass, true, false))
+                    .filter(field -> skipPrimaryKeyOnInserting ? !isPrimaryKey(field) : true)
+                    .filter(field -> autoGeneratedPrimaryKey ? !isPrimaryKey(field) : true)
+                    .map(field -> getColumnName(field)).toArray(String[]::new);
+        }
+        return insertableColumns.clone();
     }
 
     @Override
     public String[] getUpdatableColumns() {
-        return Arrays.stream(getColumnizableFields(domainModelClass, false, true))
-                .filter(field -> field.getAnnotation(PrimaryKey.class) == null)
-                .map(field -> getColumnName(field)).toArray(String[]::new);
+        if (updatableColumns == null) {
+            updatableColumns = Arrays.stream(getColumnizableFields(domainModelClass, false, true))
+                    .filter(field -> !isPrimaryKey(field))
+                    .map(field -> getColumnName(field)).toArray(String[]::new);
+        }
+        return updatableColumns.clone();
     }
 
     @Override
@@ -194,99 +319,71 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
 
     @Override
     public Optional<String> getFieldDefaultValue(String fieldName) {
-        try {
-            DomainModel domainModel = domainModelClass.getAnnotation(DomainModel.class);
-            Field field = domainModelClass.getDeclaredField(fieldName);
-
-            if(field.getName().equals(domainModel.primaryFieldName())
-                    && !WordUtil.isEmpty(domainModel.primaryKeyDefaultValue())) {
-                return Optional.of(domainModel.primaryKeyDefaultValue());
-            }
-
-            Column column = field.getAnnotation(Column.class);
-            if (column != null && !WordUtil.isEmpty(column.defaultValue())) {
-                return Optional.of(column.defaultValue());
-            }
-            return Optional.empty();
-        } catch (NoSuchFieldException ex) {
-            throw new IllegalArgumentException(ex.getMessage(), ex);
-        }
+        return getFieldMetadata(fieldName).defaultValue;
     }
 
     @Override
     public boolean hasDefaultValue(String fieldName) {
-        try {
-            DomainModel domainModel = domainModelClass.getAnnotation(DomainModel.class);
-            Field field = domainModelClass.getDeclaredField(fieldName);
-
-            if(field.getName().equals(domainModel.primaryFieldName())) {
-                return !WordUtil.isEmpty(domainModel.primaryKeyDefaultValue());
-            }
-
-            Column column = field.getAnnotation(Column.class);
-            if (column != null) {
-                return !WordUtil.isEmpty(column.defaultValue());
-            }
-            return false;
-        } catch (NoSuchFieldException ex) {
-            throw new IllegalArgumentException(ex.getMessage(), ex);
-        }
+        return getFieldMetadata(fieldName).hasDefaultValue;
     }
 
     @Override
     public FieldValue getFieldValue(Object bean, String fieldName) {
-        try {
-            Object value = PropertyUtils.read(bean, fieldName);
-
-            DomainModel domainModel = domainModelClass.getAnnotation(DomainModel.class);
-            Field field = domainModelClass.getDeclaredField(fieldName);
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(fieldName);
+        if (fieldMetadata == null) {
+            throw new IllegalArgumentException(String.format("The %s has no field named %s",
+                    domainModelClass.getName(), fieldName));
+        }
 
-            if (domainModel.primaryFieldName().equals(fieldName)) {
-                String primaryValue = domainModel.primaryKeyDefaultValue();
-                return new DefaultFieldValue(JDBCType.NULL, primaryValue);
-            }
+        Object value = fieldMetadata.read(bean);
 
-            if (value == null) {
-                return new DefaultFieldValue(null);
-            }
+        if (fieldMetadata.primaryField) {
+            return new DefaultFieldValue(JDBCType.NULL, domainModel.primaryKeyDefaultValue());
+        }
 
-            Column column = field.getAnnotation(Column.class);
-            if (column != null) {
-                return new DefaultFieldValue(column.sqlType(), value);
-            }
+        if (value == null) {
+            return new DefaultFieldValue(null);
+        }
 
-            return new DefaultFieldValue(value);
-        } catch (NoSuchFieldException ex) {
-            throw new IllegalArgumentException(ex.getMessage(), ex);
+        if (fieldMetadata.sqlType != null) {
+            return new DefaultFieldValue(fieldMetadata.sqlType, value);
         }
+
+        return new DefaultFieldValue(value);
     }
 
     @Override
     public Class getFieldType(String fieldName) {
-        try {
-            if (fieldName == null) {
-                return null;
-            }
-            Field field = domainModelClass.getDeclaredField(fieldName);
-            return field == null ? null : field.getType();
-        } catch (NoSuchFieldException ex) {
-            throw new IllegalStateException(ex.getMessage(), ex);
+        if (fieldName == null) {
+            return null;
+        }
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(fieldName);
+        if (fieldMetadata == null) {
+            throw new IllegalStateException(String.format("The %s has no field named %s",
+                    domainModelClass.getName(), fieldName));
         }
+        return fieldMetadata.field.getType();
     }
 
     @Override
     public void setFieldValue(T modelObject, String fieldName, Object fieldValue) {
-        PropertyUtils.write(modelObject, fieldName, fieldValue);
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(fieldName);
+        if (fieldMetadata == null) {
+            PropertyUtils.write(modelObject, fieldName, fieldValue);
+        } else {
+            fieldMetadata.write(modelObject, fieldValue);
+        }
     }
 
     @Override
     public boolean isTransitable(String fieldName) {
-        return columnTransitionMap.get(fieldName) != null;
+        return getColumnTransition(fieldName) != null;
     }
 
     @Override
     public ColumnTransition getColumnTransition(String fieldName) {
-        return columnTransitionMap.get(fieldName);
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(fieldName);
+        return fieldMetadata == null ? null : fieldMetadata.columnTransition;
     }
 
     protected Field[] getColumnizableFields(Class domainModelClass, boolean insertable, boolean updatable) {
@@ -351,37 +448,17 @@ public class BeanModelDescriptor<T> implements DomainModelDescriptor<T> {
         }
     }
 
-    private void prepareColumnToPropertyOverrides(Class<T> rowClass) {
-        Field[] fields = rowClass.getDeclaredFields();
-        Arrays.stream(fields).forEach(field -> {
-            PrimaryKey primaryKey = field.getAnnotation(PrimaryKey.class);
-            Column column = field.getAnnotation(Column.class);
-
-            if (primaryKey != null) {
-                String columnName = StringUtil.isBlank(primaryKey.name())
-                        ? WordUtil.underscore(field.getName()) : primaryKey.name();
-                columnToField.put(columnName, field);
-                columnToField.put(columnName.toUpperCase(), field);
-            } else if (column != null) {
-                String columnName = StringUtil.isBlank(column.name())
-                        ? WordUtil.underscore(field.getName()) : column.name();
-                columnToField.put(columnName.toUpperCase(), field);
-                columnToField.put(columnName, field);
-            } else {
-                columnToField.put(WordUtil.underscore(field.getName()), field);
-                columnToField.put(WordUtil.underscore(field.getName()).toUpperCase(), field);
-            }
-        });
+    private boolean isPrimaryKey(Field field) {
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(field.getName());
+        return fieldMetadata == null ? field.getAnnotation(PrimaryKey.class) != null : fieldMetadata.primaryKey;
     }
 
-    private Map<String, ColumnTransition> instantiateColumnTransitionMap(Field[] fields) {
-        Arrays.stream(fields).forEach(field -> {
-            Column column = field.getAnnotation(Column.class);
-            if (column != null && !column.transition().equals(ColumnTransition.class)) {
-                columnTransitionMap.put(field.getName(), ClassUtils.createNewInstance(column.transition()));
-            }
-        });
-
-        return columnTransitionMap;
+    private FieldMetadata getFieldMetadata(String fieldName) {
+        FieldMetadata fieldMetadata = fieldMetadataMap.get(fieldName);
+        if (fieldMetadata == null) {
+            throw new IllegalArgumentException(String.format("The %s has no field named %s",
+                    domainModelClass.getName(), fieldName));
+        }
+        return fieldMetadata;
     }
 }
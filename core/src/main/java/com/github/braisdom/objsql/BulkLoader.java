@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * This class is a extension point for loading a large number of rows through
+ * the native bulk-load path of database, such as <code>COPY</code> of PostgreSQL.
+ */
+public interface BulkLoader {
+
+    /**
+     * Supplies the values of rows one by one, in the order of columns.
+     */
+    @FunctionalInterface
+    interface RowSource {
+
+        /**
+         * Returns the values of next row, or null if there are no more rows.
+         */
+        Object[] next() throws SQLException;
+    }
+
+    /**
+     * Loads the rows into the table, the rows are pulled from the source while loading
+     * and will not be held in memory.
+     *
+     * @param tableName   the quoted name of table
+     * @param columnNames the quoted names of columns
+     * @return the count of rows loaded
+     */
+    long load(Connection connection, DatabaseDialect dialect, String tableName,
+              String[] columnNames, RowSource rowSource) throws SQLException;
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+/**
+ * Binds the <code>ConnectionContext</code> of transaction to the current unit of
+ * execution. It is a <code>ThreadLocal</code> by default, the application can install
+ * a binder based on its own context propagation, such as the scoped values or the
+ * context of a reactive framework, so the transaction can be seen by child tasks
+ * without thread locals.
+ *
+ * @see Databases#installConnectionBinder(ConnectionBinder)
+ */
+public interface ConnectionBinder {
+
+    /**
+     * Returns the context bound currently, or null if there is no transaction.
+     */
+    ConnectionContext get();
+
+    void bind(ConnectionContext connectionContext);
+
+    void unbind();
+}
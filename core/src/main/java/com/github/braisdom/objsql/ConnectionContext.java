@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The state of a transaction bound by <code>ConnectionBinder</code>, it holds the
+ * connection, the write-behind buffer and the child tasks forked in the transaction.
+ * The context also holds the actions to run after the transaction commits, which are
+ * discarded if it rolls back.
+ * The context can be passed to other threads, the statements of them on the connection
+ * are serialized by the lock of context, and a <code>ReentrantLock</code> is used
+ * instead of monitor for not pinning the virtual threads.
+ *
+ * @see Databases#fork(Databases.AsyncExecutor)
+ */
+public final class ConnectionContext {
+
+    private final Connection connection;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<ChildTask> childTasks = new ArrayList<>();
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+    private volatile WriteBehindBuffer writeBehindBuffer;
+
+    public ConnectionContext(Connection connection) {
+        this.connection = connection;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    WriteBehindBuffer getWriteBehindBuffer() {
+        return writeBehindBuffer;
+    }
+
+    void setWriteBehindBuffer(WriteBehindBuffer writeBehindBuffer) {
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+
+    void addChildTask(ChildTask childTask) {
+        synchronized (childTasks) {
+            childTasks.add(childTask);
+        }
+    }
+
+    /**
+     * Returns the child tasks forked so far and forgets them.
+     */
+    List<ChildTask> drainChildTasks() {
+        synchronized (childTasks) {
+            List<ChildTask> drainedTasks = new ArrayList<>(childTasks);
+            childTasks.clear();
+            return drainedTasks;
+        }
+    }
+
+    void addAfterCommitAction(Runnable action) {
+        synchronized (afterCommitActions) {
+            afterCommitActions.add(action);
+        }
+    }
+
+    /**
+     * Runs the actions registered so far and forgets them.
+     */
+    void runAfterCommitActions() {
+        List<Runnable> drainedActions;
+        synchronized (afterCommitActions) {
+            drainedActions = new ArrayList<>(afterCommitActions);
+            afterCommitActions.clear();
+        }
+        for (Runnable action : drainedActions) {
+            action.run();
+        }
+    }
+
+    /**
+     * A task forked in the transaction, the result is returned to the caller, and the
+     * termination is completed when the task stops using the connection, even if the
+     * result is cancelled while running.
+     */
+    static final class ChildTask {
+
+        private final CompletableFuture<?> result;
+        private final CompletableFuture<Void> termination = new CompletableFuture<>();
+
+        ChildTask(CompletableFuture<?> result) {
+            this.result = result;
+        }
+
+        CompletableFuture<?> getResult() {
+            return result;
+        }
+
+        CompletableFuture<Void> getTermination() {
+            return termination;
+        }
+    }
+}
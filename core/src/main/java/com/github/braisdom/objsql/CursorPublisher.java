@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the rows of a cursor as they are requested. The rows are emitted by a task
+ * of executor which runs only while there is outstanding demand, so a slow subscriber
+ * holds the connection of cursor but not a thread. The cursor is opened at the first
+ * request, and closed when it is exhausted, failed or cancelled.
+ */
+final class CursorPublisher<T> implements QueryPublisher<T> {
+
+    @FunctionalInterface
+    interface CursorOpener<T> {
+        QueryCursor<T> open() throws SQLException;
+    }
+
+    private final CursorOpener<T> cursorOpener;
+    private final Executor executor;
+
+    CursorPublisher(CursorOpener<T> cursorOpener, Executor executor) {
+        this.cursorOpener = cursorOpener;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "The subscriber cannot be null");
+        CursorSubscription<T> subscription = new CursorSubscription<>(cursorOpener, executor, subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private static final class CursorSubscription<T> implements Subscription {
+
+        private final CursorOpener<T> cursorOpener;
+        private final Executor executor;
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Touched by the drain task only, and the drains never overlap
+        private QueryCursor<T> cursor;
+
+        CursorSubscription(CursorOpener<T> cursorOpener, Executor executor, Subscriber<? super T> subscriber) {
+            this.cursorOpener = cursorOpener;
+            this.executor = executor;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The requested count must be positive: " + n);
+            } else {
+                long current;
+                do {
+                    current = requested.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                } while (!requested.compareAndSet(current, addCap(current, n)));
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                }
+            }
+        }
+
+        /**
+         * Emits the rows requested, the pending drains is left positive after terminated,
+         * so no more drain will be scheduled.
+         */
+        private void drain() {
+            int missedDrains = 1;
+            do {
+                try {
+                    if (cancelled) {
+                        closeCursor();
+                        return;
+                    }
+                    if (invalidRequest != null) {
+                        cancelled = true;
+                        closeCursor();
+                        subscriber.onError(invalidRequest);
+                        return;
+                    }
+
+                    long demand = requested.get();
+                    long emitted = 0;
+                    while (emitted != demand) {
+                        if (cancelled) {
+                            closeCursor();
+                            return;
+                        }
+                        if (cursor == null) {
+                            cursor = cursorOpener.open();
+                        }
+                        if (!cursor.hasNext()) {
+                            cancelled = true;
+                            closeCursor();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        subscriber.onNext(cursor.next());
+                        emitted++;
+                    }
+                    if (demand != Long.MAX_VALUE) {
+                        requested.addAndGet(-emitted);
+                    }
+                } catch (Throwable ex) {
+                    cancelled = true;
+                    closeCursor();
+                    subscriber.onError(unwrap(ex));
+                    return;
+                }
+                missedDrains = pendingDrains.addAndGet(-missedDrains);
+            } while (missedDrains != 0);
+        }
+
+        private void closeCursor() {
+            if (cursor != null) {
+                try {
+                    cursor.close();
+                } catch (SQLException ex) {
+                    // The subscriber has been terminated or cancelled already
+                } finally {
+                    cursor = null;
+                }
+            }
+        }
+
+        private static Throwable unwrap(Throwable ex) {
+            if (ex instanceof IllegalStateException && ex.getCause() instanceof SQLException) {
+                return ex.getCause();
+            }
+            return ex;
+        }
+
+        private static long addCap(long current, long n) {
+            long sum = current + n;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.github.braisdom.objsql.DatabaseType.*;
+
+/**
+ * The dialect of database resolved from <code>DatabaseMetaData</code>, it is resolved once
+ * for each data source and cached in <code>Databases</code>, so the product name of database
+ * will not be acquired from the driver in each operation.
+ *
+ * @see Databases#getDialect(String, java.sql.Connection)
+ */
+public final class DatabaseDialect {
+
+    private static final int DEFAULT_MAX_BIND_PARAMETERS = 999;
+
+    private final String databaseName;
+    private final DatabaseType databaseType;
+    private final boolean generatedKeysSupported;
+
+    public DatabaseDialect(String databaseName, boolean generatedKeysSupported) {
+        Objects.requireNonNull(databaseName, "The databaseName cannot be null");
+
+        this.databaseName = databaseName;
+        this.databaseType = DatabaseType.from(databaseName);
+        this.generatedKeysSupported = generatedKeysSupported;
+    }
+
+    public static DatabaseDialect resolve(DatabaseMetaData databaseMetaData) throws SQLException {
+        return new DatabaseDialect(databaseMetaData.getDatabaseProductName(),
+                databaseMetaData.supportsGetGeneratedKeys());
+    }
+
+    /**
+     * Returns the product name of database, which is compatible with <code>Quoter</code>.
+     */
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    public DatabaseType getDatabaseType() {
+        return databaseType;
+    }
+
+    public boolean is(DatabaseType... databaseTypes) {
+        for (DatabaseType type : databaseTypes) {
+            if (type == databaseType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String quoteTableName(String tableName) {
+        return Databases.getQuoter().quoteTableName(databaseName, tableName);
+    }
+
+    public String quoteColumnName(String columnName) {
+        return Databases.getQuoter().quoteColumnName(databaseName, columnName);
+    }
+
+    public String[] quoteColumnNames(String[] columnNames) {
+        return Databases.getQuoter().quoteColumnNames(databaseName, columnNames);
+    }
+
+    /**
+     * Returns the maximum count of bind parameters in a statement.
+     */
+    public int getMaxBindParameters() {
+        switch (databaseType) {
+            case MySQL:
+            case MariaDB:
+                return 65535;
+            case PostgreSQL:
+            case H2Database:
+                return 32767;
+            case Oracle:
+                return 65535;
+            case MsSqlServer:
+                return 2100;
+            default:
+                return DEFAULT_MAX_BIND_PARAMETERS;
+        }
+    }
+
+    /**
+     * Returns true if the database accepts <code>INSERT INTO ... VALUES (...), (...)</code>.
+     */
+    public boolean supportsMultiRowValues() {
+        return is(MySQL, MariaDB, PostgreSQL, SQLite, H2Database, MsSqlServer, Clickhouse);
+    }
+
+    /**
+     * Returns the maximal number of rows in a multi-row <code>VALUES</code> clause,
+     * SQL Server rejects more than 1000 row values.
+     */
+    public int getMaxMultiRowValues() {
+        return is(MsSqlServer) ? 1000 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the maximal number of expressions in an <code>IN (...)</code> list,
+     * Oracle rejects more than 1000 expressions.
+     */
+    public int getMaxInListSize() {
+        return is(Oracle) ? 1000 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number of values bound in one <code>IN (...)</code> list, which is
+     * limited by the batch size, the IN-list limit and the bind parameters left
+     * after the <code>reservedParameters</code>.
+     */
+    public int getInListChunkSize(int reservedParameters) {
+        int chunkSize = Math.min(Databases.getBatchSize(), getMaxInListSize());
+        return Math.max(1, Math.min(chunkSize, getMaxBindParameters() - reservedParameters));
+    }
+
+    /**
+     * Returns the predicate like <code>column IN (?, ?, ?)</code>.
+     */
+    public String formatInPredicate(String quotedColumnName, int parameterCount) {
+        StringBuilder predicate = new StringBuilder(quotedColumnName).append(" IN (");
+        for (int i = 0; i < parameterCount; i++) {
+            predicate.append(i == 0 ? "?" : ", ?");
+        }
+        return predicate.append(")").toString();
+    }
+
+    /**
+     * Returns true if an array can be bound as a parameter, such as <code>id = ANY(?)</code>.
+     */
+    public boolean supportsArrayParameters() {
+        return is(PostgreSQL);
+    }
+
+    /**
+     * Returns the SQL type name of array elements for the value, which is used in
+     * <code>Connection.createArrayOf</code>, or null if the value cannot be bound in an array.
+     * The strings are not bound in arrays, since a <code>varchar[]</code> cannot be compared
+     * with the columns of <code>uuid</code>, <code>citext</code> or enum types in PostgreSQL,
+     * and the column type is unknown here, they are bound in <code>IN (...)</code> lists.
+     */
+    public String getArrayElementTypeName(Object value) {
+        if (value instanceof Long) {
+            return "bigint";
+        } else if (value instanceof Integer) {
+            return "integer";
+        } else if (value instanceof Short) {
+            return "smallint";
+        } else if (value instanceof UUID) {
+            return "uuid";
+        } else if (value instanceof BigDecimal) {
+            return "numeric";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the size of <code>IN (...)</code> list padded for the count of values, the
+     * sizes are the powers of two up to the chunk size, so a few statements are reused
+     * for any count of values, and the list is padded by repeating a value.
+     */
+    public int getPaddedInListSize(int valueCount, int chunkSize) {
+        if (valueCount >= chunkSize) {
+            return chunkSize;
+        }
+        int paddedSize = Integer.highestOneBit(Math.max(1, valueCount));
+        if (paddedSize < valueCount) {
+            paddedSize <<= 1;
+        }
+        return Math.min(paddedSize, chunkSize);
+    }
+
+    public boolean supportsGeneratedKeys() {
+        return generatedKeysSupported;
+    }
+
+    /**
+     * Returns true if the rows are streamed only when the fetch size is <code>Integer.MIN_VALUE</code>.
+     */
+    public boolean isStreamingByMinFetchSize() {
+        return is(MySQL, MariaDB);
+    }
+
+    /**
+     * Returns true if the driver fetches rows by cursor only when the auto-commit is off.
+     */
+    public boolean isCursorFetchInTransaction() {
+        return is(PostgreSQL);
+    }
+
+    @Override
+    public String toString() {
+        return databaseName;
+    }
+}
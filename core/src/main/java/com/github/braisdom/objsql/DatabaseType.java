@@ -45,4 +45,35 @@ public enum DatabaseType {
     public boolean nameEquals(String name) {
         return this.name.equalsIgnoreCase(name);
     }
+
+    /**
+     * Returns the database type by the product name from <code>DatabaseMetaData</code>,
+     * some drivers report a product name different from the name of type.
+     *
+     * @param productName the name from <code>DatabaseMetaData.getDatabaseProductName()</code>
+     * @return the database type or <code>Unknown</code>
+     */
+    public static DatabaseType from(String productName) {
+        if (productName == null) {
+            return Unknown;
+        }
+
+        for (DatabaseType databaseType : values()) {
+            if (databaseType != All && databaseType.nameEquals(productName)) {
+                return databaseType;
+            }
+        }
+
+        String lowerProductName = productName.toLowerCase();
+        if (lowerProductName.equals("h2")) {
+            return H2Database;
+        } else if (lowerProductName.contains("sql server")) {
+            return MsSqlServer;
+        } else if (lowerProductName.contains("hive")) {
+            return Hive;
+        } else if (lowerProductName.contains("mariadb")) {
+            return MariaDB;
+        }
+        return Unknown;
+    }
 }
@@ -21,8 +21,18 @@ import com.github.braisdom.objsql.util.StringUtil;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 /**
@@ -32,22 +42,33 @@ import java.util.logging.Level;
 @SuppressWarnings("ALL")
 public final class Databases {
 
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 1024;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_RELATION_CHUNK_SIZE = 256;
+    private static final long DEFAULT_GROUP_COMMIT_WINDOW_MICROS = 1000;
+    private static final int DEFAULT_GROUP_COMMIT_MAX_WRITES = 100;
+
     /**
      * The default sql executor for Objective, and customized the implementation when meeting
      * the specific database
      */
     private static SQLExecutor sqlExecutor;
 
+    /**
+     * Loads a large number of rows through the native bulk-load path of database.
+     */
+    private static BulkLoader bulkLoader;
+
     /**
      * The connectionFacotory is required in ObjectiveSql, it will be injected at application beginning
      */
     private static ConnectionFactory connectionFactory;
 
     /**
-     * Holds the database connection in a thread, and destroy the connection when transaction
-     * terminated or exception occoured.
+     * Binds the context of transaction, which holds the database connection and the
+     * write-behind buffer, and unbinds it when transaction terminated or exception occoured.
      */
-    private static ThreadLocal<Connection> connectionThreadLocal = new ThreadLocal<>();
+    private static volatile ConnectionBinder connectionBinder = new ThreadLocalConnectionBinder();
 
     /**
      * Quoting name of table or column by various database type.
@@ -60,6 +81,63 @@ public final class Databases {
      */
     private static LoggerFactory loggerFactory;
 
+    /**
+     * The dialect is resolved at the first connection of data source, and the
+     * <code>DatabaseMetaData</code> will not be touched in later operations.
+     */
+    private static final Map<String, DatabaseDialect> dialects = new ConcurrentHashMap<>();
+
+    /**
+     * The generated SQL of persistence statements, it is cleared when the quoter changed.
+     */
+    private static final StatementCache statementCache = new StatementCache(DEFAULT_STATEMENT_CACHE_SIZE);
+
+    /**
+     * The maximal number of rows sent to database in one round trip when inserting
+     * or updating an array of domain objects.
+     */
+    private static volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * The maximal number of associated keys bound in one query when loading relationships.
+     */
+    private static volatile int relationChunkSize = DEFAULT_RELATION_CHUNK_SIZE;
+
+    /**
+     * Runs the asynchronous database operations, such as the forked tasks of transaction,
+     * a fixed pool of daemon threads sized by the processors is created if not installed.
+     */
+    private static ExecutorService executorService;
+
+    /**
+     * Inserts the partitions of parallel insert, it is separated from the executors of
+     * asynchronous operations, so the large inserts do not starve them. A cached pool of
+     * daemon threads is created if not installed.
+     */
+    private static ExecutorService partitionExecutorService;
+
+    /**
+     * Loads the sibling relationships of parallel queries, it is separated from the executors
+     * of asynchronous operations, since the query waits for its siblings, and it would starve
+     * if it is running on the same pool. A cached pool of daemon threads is created if not
+     * installed.
+     */
+    private static ExecutorService relationExecutorService;
+
+    /**
+     * The executors of data sources for asynchronous operations, the data source
+     * without executor uses the default executor.
+     */
+    private static final Map<String, ExecutorService> dataSourceExecutorServices = new ConcurrentHashMap<>();
+
+    /**
+     * Commits the writes of domain models with <code>groupCommit</code> in groups,
+     * an executor is created for each data source.
+     */
+    private static final Map<String, GroupCommitExecutor> groupCommitExecutors = new ConcurrentHashMap<>();
+    private static volatile long groupCommitWindowMicros = DEFAULT_GROUP_COMMIT_WINDOW_MICROS;
+    private static volatile int groupCommitMaxWrites = DEFAULT_GROUP_COMMIT_MAX_WRITES;
+
     private static QueryFactory queryFactory;
 
     private static PersistenceFactory persistenceFactory;
@@ -88,22 +166,240 @@ public final class Databases {
         R apply() throws Exception;
     }
 
+    /**
+     * Represents an operation of database executed asynchronously.
+     *
+     * @param <R>
+     */
+    @FunctionalInterface
+    public static interface AsyncExecutor<R> {
+        R apply() throws SQLException;
+    }
+
     @FunctionalInterface
     public static interface Benchmarkable<R> {
         R apply() throws Exception;
     }
 
     public static void setCurrentThreadConnection(Connection connection) {
-        connectionThreadLocal.set(connection);
+        connectionBinder.bind(new ConnectionContext(connection));
+    }
+
+    public static Connection getCurrentThreadConnection() {
+        ConnectionContext connectionContext = connectionBinder.get();
+        return connectionContext == null ? null : connectionContext.getConnection();
     }
 
     public static void clearCurrentThreadConnection() {
-        connectionThreadLocal.remove();
+        connectionBinder.unbind();
+    }
+
+    /**
+     * Returns the context of current transaction, or null if there is no transaction.
+     */
+    public static ConnectionContext getCurrentContext() {
+        return connectionBinder.get();
+    }
+
+    /**
+     * Executes the operation with the context bound, and restores the context bound
+     * before, it is used to pass a transaction to the code running in other threads.
+     */
+    public static <R> R executeWithContext(ConnectionContext connectionContext,
+                                           AsyncExecutor<R> executor) throws SQLException {
+        Objects.requireNonNull(executor, "The executor cannot be null");
+
+        ConnectionContext previousContext = connectionBinder.get();
+        connectionBinder.bind(connectionContext);
+        try {
+            return executor.apply();
+        } finally {
+            if (previousContext == null) {
+                connectionBinder.unbind();
+            } else {
+                connectionBinder.bind(previousContext);
+            }
+        }
+    }
+
+    /**
+     * Executes the operation on the executor in the transaction of current context, the
+     * statements of operation share the connection of transaction and are serialized with
+     * the others. The forked operations are awaited before the transaction commits, and
+     * the transaction rolls back if any of them fails, the operations unfinished are
+     * cancelled and awaited before rollback. Without transaction, the operation
+     * is the same as <code>executeAsync</code>.
+     */
+    public static <R> CompletableFuture<R> fork(AsyncExecutor<R> executor) {
+        Objects.requireNonNull(executor, "The executor cannot be null");
+
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext == null) {
+            return executeAsync(getDefaultDataSourceName(), executor);
+        }
+
+        CompletableFuture<R> future = new CompletableFuture<>();
+        ConnectionContext.ChildTask childTask = new ConnectionContext.ChildTask(future);
+        connectionContext.addChildTask(childTask);
+        try {
+            getExecutorService().execute(() -> {
+                try {
+                    // The task cancelled before started does not touch the connection
+                    if (!future.isDone()) {
+                        completeFuture(future, () -> executeWithContext(connectionContext, executor));
+                    }
+                } finally {
+                    childTask.getTermination().complete(null);
+                }
+            });
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            childTask.getTermination().complete(null);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for the operations forked in the transaction of current context, it should
+     * be invoked before commit. The first failure of them is thrown.
+     */
+    public static void awaitChildTasks() throws SQLException {
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext == null) {
+            return;
+        }
+
+        List<ConnectionContext.ChildTask> childTasks;
+        while (!(childTasks = connectionContext.drainChildTasks()).isEmpty()) {
+            Throwable failure = null;
+            for (ConnectionContext.ChildTask childTask : childTasks) {
+                try {
+                    childTask.getResult().join();
+                } catch (CompletionException | CancellationException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause() == null ? ex : ex.getCause();
+                    }
+                }
+            }
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            } else if (failure != null) {
+                throw new SQLException(failure.getMessage(), failure);
+            }
+        }
+    }
+
+    /**
+     * Cancels the operations forked in the transaction of current context, and waits for
+     * the running ones to finish, since they are still using the connection. It should be
+     * invoked before rollback, so the connection is not rolled back or closed under them.
+     */
+    public static void cancelChildTasks() {
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext == null) {
+            return;
+        }
+
+        List<ConnectionContext.ChildTask> childTasks;
+        while (!(childTasks = connectionContext.drainChildTasks()).isEmpty()) {
+            for (ConnectionContext.ChildTask childTask : childTasks) {
+                childTask.getResult().cancel(false);
+            }
+            for (ConnectionContext.ChildTask childTask : childTasks) {
+                childTask.getTermination().join();
+            }
+        }
+    }
+
+    /**
+     * Runs the action after the transaction of current context commits, or at once if
+     * there is no transaction, since the statements are committed automatically.
+     * The action is discarded if the transaction rolls back.
+     */
+    static void afterCommit(Runnable action) {
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext == null) {
+            action.run();
+        } else {
+            connectionContext.addAfterCommitAction(action);
+        }
+    }
+
+    /**
+     * Runs the actions registered in the transaction of current context, it should be
+     * invoked after commit, such as refreshing the snapshots of dirty tracking.
+     */
+    public static void runAfterCommitActions() {
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext != null) {
+            connectionContext.runAfterCommitActions();
+        }
+    }
+
+    /**
+     * Queues the inserts, updates and deletes of persistence in the transaction of current
+     * thread, they will be flushed in JDBC batches before the query reading the affected
+     * tables, the other statements, or the commit. The inserts whose primary key is generated
+     * by database are never queued, they are executed at once after the statements queued,
+     * and the deletes by id return 0 since they are not executed at once.
+     */
+    public static void beginWriteBehind(String dataSourceName) {
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext == null) {
+            throw new IllegalStateException("The write-behind requires a transaction in current thread");
+        }
+        connectionContext.setWriteBehindBuffer(new WriteBehindBuffer(dataSourceName));
+    }
+
+    /**
+     * Executes the statements queued in current thread, it should be invoked before commit.
+     */
+    public static void flushWriteBehind() throws SQLException {
+        flushWriteBehind(null);
+    }
+
+    /**
+     * Executes the statements queued if they touch any of the tables, or the tables is null.
+     */
+    static void flushWriteBehind(String[] tableNames) throws SQLException {
+        ConnectionContext connectionContext = connectionBinder.get();
+        if (connectionContext == null || connectionContext.getWriteBehindBuffer() == null) {
+            return;
+        }
+
+        connectionContext.lock();
+        try {
+            WriteBehindBuffer writeBehindBuffer = connectionContext.getWriteBehindBuffer();
+            if (writeBehindBuffer.affects(tableNames)) {
+                writeBehindBuffer.flush(connectionContext.getConnection(), getSqlExecutor());
+            }
+        } finally {
+            connectionContext.unlock();
+        }
+    }
+
+    /**
+     * Returns the write-behind buffer of current thread for the data source,
+     * or null if the write-behind is not enabled.
+     */
+    static WriteBehindBuffer getWriteBehindBuffer(String dataSourceName) {
+        ConnectionContext connectionContext = connectionBinder.get();
+        WriteBehindBuffer writeBehindBuffer = connectionContext == null ? null : connectionContext.getWriteBehindBuffer();
+        if (writeBehindBuffer != null && writeBehindBuffer.getDataSourceName().equals(dataSourceName)) {
+            return writeBehindBuffer;
+        }
+        return null;
     }
 
     public static void installConnectionFactory(ConnectionFactory connectionFactory) {
         Objects.requireNonNull(connectionFactory, "The connectionFactory cannot be null");
         Databases.connectionFactory = connectionFactory;
+        Databases.dialects.clear();
+    }
+
+    public static void installConnectionBinder(ConnectionBinder connectionBinder) {
+        Objects.requireNonNull(connectionBinder, "The connectionBinder cannot be null");
+        Databases.connectionBinder = connectionBinder;
     }
 
     public static void installSqlExecutor(SQLExecutor sqlExecutor) {
@@ -111,6 +407,32 @@ public final class Databases {
         Databases.sqlExecutor = sqlExecutor;
     }
 
+    public static void installBulkLoader(BulkLoader bulkLoader) {
+        Objects.requireNonNull(bulkLoader, "The bulkLoader cannot be null");
+        Databases.bulkLoader = bulkLoader;
+    }
+
+    public static synchronized void installExecutorService(ExecutorService executorService) {
+        Objects.requireNonNull(executorService, "The executorService cannot be null");
+        Databases.executorService = executorService;
+    }
+
+    public static synchronized void installPartitionExecutorService(ExecutorService partitionExecutorService) {
+        Objects.requireNonNull(partitionExecutorService, "The partitionExecutorService cannot be null");
+        Databases.partitionExecutorService = partitionExecutorService;
+    }
+
+    public static synchronized void installRelationExecutorService(ExecutorService relationExecutorService) {
+        Objects.requireNonNull(relationExecutorService, "The relationExecutorService cannot be null");
+        Databases.relationExecutorService = relationExecutorService;
+    }
+
+    public static void installExecutorService(String dataSourceName, ExecutorService executorService) {
+        Objects.requireNonNull(dataSourceName, "The dataSourceName cannot be null");
+        Objects.requireNonNull(executorService, "The executorService cannot be null");
+        dataSourceExecutorServices.put(dataSourceName, executorService);
+    }
+
     public static void installQueryFacotry(QueryFactory queryFactory) {
         Objects.requireNonNull(queryFactory, "The queryFactory cannot be null");
         Databases.queryFactory = queryFactory;
@@ -129,25 +451,43 @@ public final class Databases {
     public static void installQuoter(Quoter quoter) {
         Objects.requireNonNull(quoter, "The quoter cannot be null");
         Databases.quoter = quoter;
+        statementCache.clear();
     }
 
     public static <R> R executeTransactionally(String dataSourceName, TransactionalExecutor<R> executor) throws SQLException {
+        return executeTransactionally(dataSourceName, executor, false);
+    }
+
+    /**
+     * @param writeBehind queues the inserts, updates and deletes and flushes them in JDBC
+     *                    batches, see <code>beginWriteBehind</code>
+     */
+    public static <R> R executeTransactionally(String dataSourceName, TransactionalExecutor<R> executor,
+                                               boolean writeBehind) throws SQLException {
         Connection connection = null;
         try {
             connection = Databases.getConnectionFactory().getConnection(dataSourceName);
             connection.setAutoCommit(false);
-            connectionThreadLocal.set(connection);
+            setCurrentThreadConnection(connection);
+            if (writeBehind) {
+                beginWriteBehind(dataSourceName);
+            }
             R result = executor.apply();
+            awaitChildTasks();
+            flushWriteBehind();
             connection.commit();
+            runAfterCommitActions();
             return result;
         } catch (SQLException ex) {
+            cancelChildTasks();
             DbUtils.rollback(connection);
             throw ex;
         } catch (Throwable ex) {
+            cancelChildTasks();
             DbUtils.rollback(connection);
             throw new RollbackCauseException(ex.getMessage(), ex);
         } finally {
-            connectionThreadLocal.remove();
+            clearCurrentThreadConnection();
             DbUtils.close(connection);
         }
     }
@@ -158,8 +498,7 @@ public final class Databases {
 
     public static void truncateTable(String dataSourceName, String tableName) throws SQLException {
         execute(dataSourceName, (connection, sqlExecutor) -> {
-            String databaseName = connection.getMetaData().getDatabaseProductName();
-            String quotedTableName = getQuoter().quoteTableName(databaseName, tableName);
+            String quotedTableName = getDialect(dataSourceName, connection).quoteTableName(tableName);
             connection.createStatement().execute(String.format("TRUNCATE TABLE %s", quotedTableName));
             return null;
         });
@@ -181,13 +520,24 @@ public final class Databases {
     }
 
     public static <T, R> R execute(String dataSourceName, DatabaseInvoke<T, R> databaseInvoke) throws SQLException {
+        return execute(dataSourceName, null, databaseInvoke);
+    }
+
+    /**
+     * The statements queued by write-behind are flushed if they touch any of the tables
+     * read by the invoke, and all of them are flushed if the tables is null.
+     */
+    static <T, R> R execute(String dataSourceName, String[] readTableNames,
+                            DatabaseInvoke<T, R> databaseInvoke) throws SQLException {
         Objects.requireNonNull(databaseInvoke, "The datasourceName cannot be null");
         Objects.requireNonNull(databaseInvoke, "The databaseInvoke cannot be null");
 
-        Connection connection = connectionThreadLocal.get();
+        flushWriteBehind(readTableNames);
+        ConnectionContext connectionContext = connectionBinder.get();
         SQLExecutor<T> sqlExecutor = getSqlExecutor();
 
-        if (connection == null) {
+        if (connectionContext == null) {
+            Connection connection = null;
             try {
                 connection = getConnectionFactory().getConnection(dataSourceName);
                 return databaseInvoke.apply(connection, sqlExecutor);
@@ -195,7 +545,12 @@ public final class Databases {
                 DbUtils.close(connection);
             }
         } else {
-            return databaseInvoke.apply(connection, sqlExecutor);
+            connectionContext.lock();
+            try {
+                return databaseInvoke.apply(connectionContext.getConnection(), sqlExecutor);
+            } finally {
+                connectionContext.unlock();
+            }
         }
     }
 
@@ -222,6 +577,25 @@ public final class Databases {
         }
     }
 
+    /**
+     * Returns the dialect of data source, it will be resolved from the connection
+     * if the data source is connected at first time.
+     *
+     * @param dataSourceName the name of data source
+     * @param connection     a connection of the data source
+     */
+    public static DatabaseDialect getDialect(String dataSourceName, Connection connection) throws SQLException {
+        Objects.requireNonNull(dataSourceName, "The dataSourceName cannot be null");
+
+        DatabaseDialect dialect = dialects.get(dataSourceName);
+        if (dialect == null) {
+            dialect = DatabaseDialect.resolve(connection.getMetaData());
+            DatabaseDialect existingDialect = dialects.putIfAbsent(dataSourceName, dialect);
+            return existingDialect == null ? dialect : existingDialect;
+        }
+        return dialect;
+    }
+
     public static String getDefaultDataSourceName() {
         return ConnectionFactory.DEFAULT_DATA_SOURCE_NAME;
     }
@@ -244,7 +618,7 @@ public final class Databases {
 
                 @Override
                 public <T> Persistence<T> createPersistence(Class<T> clazz) {
-                    return createPersistence(new BeanModelDescriptor<>(clazz));
+                    return createPersistence(BeanModelDescriptor.of(clazz));
                 }
 
                 public <T> Persistence<T> createPersistence(DomainModelDescriptor<T> domainModelDescriptor) {
@@ -262,6 +636,174 @@ public final class Databases {
         return sqlExecutor;
     }
 
+    public static synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "objsql-executor-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorService;
+    }
+
+    public static synchronized ExecutorService getPartitionExecutorService() {
+        if (partitionExecutorService == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            partitionExecutorService = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "objsql-partition-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return partitionExecutorService;
+    }
+
+    public static synchronized ExecutorService getRelationExecutorService() {
+        if (relationExecutorService == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            relationExecutorService = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "objsql-relation-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return relationExecutorService;
+    }
+
+    /**
+     * Sets the window of group commit, the executors created already take it from
+     * their next group.
+     *
+     * @param windowMicros the time of collecting writes after the first write of a group
+     * @param maxWrites    the maximal count of writes committed together
+     */
+    public static void setGroupCommitWindow(long windowMicros, int maxWrites) {
+        if (windowMicros < 0 || maxWrites <= 0) {
+            throw new IllegalArgumentException("The windowMicros cannot be negative and maxWrites must be positive");
+        }
+        Databases.groupCommitWindowMicros = windowMicros;
+        Databases.groupCommitMaxWrites = maxWrites;
+        for (GroupCommitExecutor groupCommitExecutor : groupCommitExecutors.values()) {
+            groupCommitExecutor.setWindow(windowMicros, maxWrites);
+        }
+    }
+
+    /**
+     * Returns an executor starting a virtual thread for each task, the blocking JDBC calls
+     * park the virtual threads instead of holding the platform threads, so a large number
+     * of operations can be in flight without a big pool. The connections are still limited
+     * by the connection pool of application. It requires a runtime supporting virtual
+     * threads, and it can be installed by <code>installExecutorService</code>.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factoryMethod.invoke(null);
+        } catch (NoSuchMethodException ex) {
+            throw new UnsupportedOperationException("The virtual thread is unsupported", ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    public static GroupCommitExecutor getGroupCommitExecutor(String dataSourceName) {
+        return groupCommitExecutors.computeIfAbsent(dataSourceName, name ->
+                new GroupCommitExecutor(name, groupCommitWindowMicros, groupCommitMaxWrites));
+    }
+
+    public static ExecutorService getExecutorService(String dataSourceName) {
+        ExecutorService dataSourceExecutorService = dataSourceExecutorServices.get(dataSourceName);
+        return dataSourceExecutorService == null ? getExecutorService() : dataSourceExecutorService;
+    }
+
+    /**
+     * Executes the operation on the executor of data source, the operation opens its own
+     * connection in the executor thread. If there is a transaction in current thread, the
+     * operation is executed in current thread, since the connection of transaction is held
+     * by the thread and cannot be used by other threads concurrently.
+     */
+    public static <R> CompletableFuture<R> executeAsync(String dataSourceName, AsyncExecutor<R> executor) {
+        Objects.requireNonNull(executor, "The executor cannot be null");
+
+        CompletableFuture<R> future = new CompletableFuture<>();
+        if (connectionBinder.get() != null) {
+            completeFuture(future, executor);
+            return future;
+        }
+
+        try {
+            getExecutorService(dataSourceName).execute(() -> {
+                try {
+                    completeFuture(future, executor);
+                } finally {
+                    clearCurrentThreadConnection();
+                }
+            });
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    private static <R> void completeFuture(CompletableFuture<R> future, AsyncExecutor<R> executor) {
+        try {
+            future.complete(executor.apply());
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    public static BulkLoader getBulkLoader() {
+        if (bulkLoader == null)
+            bulkLoader = new DefaultBulkLoader();
+
+        return bulkLoader;
+    }
+
+    public static void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batchSize must be greater than 0");
+        }
+        Databases.batchSize = batchSize;
+    }
+
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @deprecated the batch size applies to updates also, use <code>setBatchSize</code>
+     */
+    @Deprecated
+    public static void setInsertBatchSize(int insertBatchSize) {
+        setBatchSize(insertBatchSize);
+    }
+
+    /**
+     * @deprecated use <code>getBatchSize</code>
+     */
+    @Deprecated
+    public static int getInsertBatchSize() {
+        return getBatchSize();
+    }
+
+    public static void setRelationChunkSize(int relationChunkSize) {
+        if (relationChunkSize <= 0) {
+            throw new IllegalArgumentException("The relationChunkSize must be greater than 0");
+        }
+        Databases.relationChunkSize = relationChunkSize;
+    }
+
+    public static int getRelationChunkSize() {
+        return relationChunkSize;
+    }
+
+    static StatementCache getStatementCache() {
+        return statementCache;
+    }
+
     public static Quoter getQuoter() {
         if (quoter == null)
             quoter = new DefaultQuoter();
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.SQLException;
+
+/**
+ * A row rejected by database in a batch, with its index in the batch and the
+ * exception raised by it.
+ *
+ * @param <R> the type of row, the parameters or the domain object
+ */
+public class DeadLetter<R> {
+
+    private final int index;
+    private final R row;
+    private final SQLException exception;
+
+    public DeadLetter(int index, R row, SQLException exception) {
+        this.index = index;
+        this.row = row;
+        this.exception = exception;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public R getRow() {
+        return row;
+    }
+
+    public SQLException getException() {
+        return exception;
+    }
+}
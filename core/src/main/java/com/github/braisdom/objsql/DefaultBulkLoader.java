@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.braisdom.objsql.DatabaseType.*;
+
+/**
+ * The default implementation of <code>BulkLoader</code>, which loads the rows as CSV through
+ * <code>CopyManager</code> of PostgreSQL, <code>LOAD DATA LOCAL INFILE</code> of MySQL and
+ * MariaDB, and <code>CSVREAD</code> of the embedded H2. The drivers are accessed by reflection, and the rows
+ * are inserted in JDBC batches when the native path is unavailable.
+ *
+ * <p>The <code>LOAD DATA LOCAL INFILE</code> requires <code>allowLoadLocalInfile=true</code> at
+ * the connection and <code>local_infile</code> at the server, the MySQL and MariaDB can be
+ * excluded from the native databases if they are not enabled.
+ */
+public class DefaultBulkLoader implements BulkLoader {
+
+    private static final String POSTGRESQL_CONNECTION_CLASS = "org.postgresql.PGConnection";
+    private static final String[] LOCAL_INFILE_STATEMENT_CLASSES = {
+            "com.mysql.cj.jdbc.JdbcStatement",
+            "com.mysql.jdbc.Statement",
+            "org.mariadb.jdbc.MariaDbStatement"
+    };
+
+    private static final String COPY_STATEMENT = "COPY %s (%s) FROM STDIN WITH CSV";
+    private static final String LOAD_DATA_STATEMENT = "LOAD DATA LOCAL INFILE 'objsql.csv' INTO TABLE %s "
+            + "CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' "
+            + "LINES TERMINATED BY '\\n' (%s)";
+    private static final String CSV_READ_STATEMENT = "INSERT INTO %s (%s) SELECT * FROM CSVREAD('%s', '%s', "
+            + "'charset=UTF-8 null=NULL')";
+    private static final String H2_URL_PREFIX = "jdbc:h2:";
+    private static final String[] REMOTE_H2_URL_PREFIXES = {"jdbc:h2:tcp:", "jdbc:h2:ssl:"};
+    private static final String INSERT_STATEMENT = "INSERT INTO %s (%s) VALUES (%s)";
+
+    private final DatabaseType[] nativeDatabaseTypes;
+
+    public DefaultBulkLoader() {
+        this(PostgreSQL, MySQL, MariaDB, H2Database);
+    }
+
+    /**
+     * @param nativeDatabaseTypes the databases loaded through native path, the others
+     *                            will be loaded in JDBC batches
+     */
+    public DefaultBulkLoader(DatabaseType... nativeDatabaseTypes) {
+        this.nativeDatabaseTypes = nativeDatabaseTypes;
+    }
+
+    @Override
+    public long load(Connection connection, DatabaseDialect dialect, String tableName,
+                     String[] columnNames, RowSource rowSource) throws SQLException {
+        if (dialect.is(nativeDatabaseTypes)) {
+            if (dialect.is(PostgreSQL)) {
+                Object copyManager = getCopyManager(connection);
+                if (copyManager != null) {
+                    return copyIn(copyManager, tableName, columnNames, rowSource);
+                }
+            } else if (dialect.is(MySQL, MariaDB)) {
+                try (Statement statement = connection.createStatement()) {
+                    Object driverStatement = unwrapLocalInfileStatement(connection, statement);
+                    if (driverStatement != null) {
+                        return loadLocalInfile(statement, driverStatement, tableName, columnNames, rowSource);
+                    }
+                }
+            } else if (dialect.is(H2Database) && isEmbeddedH2(connection.getMetaData().getURL())) {
+                return readCsv(connection, tableName, columnNames, rowSource);
+            }
+        }
+        return insertBatches(connection, tableName, columnNames, rowSource);
+    }
+
+    private Object getCopyManager(Connection connection) throws SQLException {
+        Class<?> connectionClass = loadDriverClass(connection, POSTGRESQL_CONNECTION_CLASS);
+        if (connectionClass == null || !connection.isWrapperFor(connectionClass)) {
+            return null;
+        }
+        try {
+            Object pgConnection = connection.unwrap(connectionClass);
+            return connectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+        } catch (ReflectiveOperationException ex) {
+            throw new SQLException(ex.getMessage(), ex);
+        }
+    }
+
+    private long copyIn(Object copyManager, String tableName, String[] columnNames,
+                        RowSource rowSource) throws SQLException {
+        String sql = String.format(COPY_STATEMENT, tableName, String.join(", ", columnNames));
+        CsvLines lines = new CsvLines(rowSource, "", false);
+        try {
+            Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+            copyIn.invoke(copyManager, sql, new CsvReader(lines));
+            return lines.getRowCount();
+        } catch (InvocationTargetException ex) {
+            throw lines.toSQLException(ex.getCause());
+        } catch (ReflectiveOperationException ex) {
+            throw new SQLException(ex.getMessage(), ex);
+        }
+    }
+
+    private Object unwrapLocalInfileStatement(Connection connection, Statement statement) throws SQLException {
+        for (String className : LOCAL_INFILE_STATEMENT_CLASSES) {
+            Class<?> statementClass = loadDriverClass(connection, className);
+            if (statementClass != null && statement.isWrapperFor(statementClass)) {
+                return statement.unwrap(statementClass);
+            }
+        }
+        return null;
+    }
+
+    private long loadLocalInfile(Statement statement, Object driverStatement, String tableName,
+                                 String[] columnNames, RowSource rowSource) throws SQLException {
+        String sql = String.format(LOAD_DATA_STATEMENT, tableName, String.join(", ", columnNames));
+        CsvLines lines = new CsvLines(rowSource, "NULL", true);
+        try {
+            Method setStream = driverStatement.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+            setStream.invoke(driverStatement, new CsvInputStream(lines));
+            statement.executeUpdate(sql);
+            return lines.getRowCount();
+        } catch (InvocationTargetException ex) {
+            throw lines.toSQLException(ex.getCause());
+        } catch (SQLException ex) {
+            throw lines.toSQLException(ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new SQLException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * The <code>CSVREAD</code> reads the file in the server, so only the embedded database
+     * can read the temporary file written here, and the server mode is loaded in JDBC batches.
+     * The embedded URLs are all except <code>tcp:</code> and <code>ssl:</code>, such as
+     * <code>mem:</code>, <code>file:</code>, <code>zip:</code> and the bare paths like
+     * <code>~/db</code> or <code>./db</code>.
+     */
+    static boolean isEmbeddedH2(String url) {
+        if (url == null || !url.regionMatches(true, 0, H2_URL_PREFIX, 0, H2_URL_PREFIX.length())) {
+            return false;
+        }
+        for (String prefix : REMOTE_H2_URL_PREFIXES) {
+            if (url.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The <code>CSVREAD</code> reads from a file only, so the rows are written into a temporary
+     * file, which is deleted after loading.
+     */
+    private long readCsv(Connection connection, String tableName, String[] columnNames,
+                         RowSource rowSource) throws SQLException {
+        CsvLines lines = new CsvLines(rowSource, "NULL", false);
+        Path csvFile = null;
+        try {
+            csvFile = Files.createTempFile("objsql-", ".csv");
+            try (Writer writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = lines.nextLine()) != null) {
+                    writer.write(line);
+                }
+            }
+
+            String csvColumns = IntStream.range(0, columnNames.length).mapToObj(i -> "C" + i)
+                    .collect(Collectors.joining(","));
+            String sql = String.format(CSV_READ_STATEMENT, tableName, String.join(", ", columnNames),
+                    csvFile.toAbsolutePath().toString().replace("'", "''"), csvColumns);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(sql);
+            }
+            return lines.getRowCount();
+        } catch (IOException ex) {
+            throw lines.toSQLException(ex);
+        } finally {
+            if (csvFile != null) {
+                csvFile.toFile().delete();
+            }
+        }
+    }
+
+    private long insertBatches(Connection connection, String tableName, String[] columnNames,
+                               RowSource rowSource) throws SQLException {
+        String sql = String.format(INSERT_STATEMENT, tableName, String.join(", ", columnNames),
+                String.join(", ", Collections.nCopies(columnNames.length, "?")));
+        SQLExecutor sqlExecutor = Databases.getSqlExecutor();
+        int batchSize = Databases.getBatchSize();
+        Object[][] batch = new Object[batchSize][];
+        long rowCount = 0;
+        int batchCount = 0;
+
+        Object[] row;
+        while ((row = rowSource.next()) != null) {
+            batch[batchCount++] = row;
+            if (batchCount == batchSize) {
+                sqlExecutor.executeBatch(connection, sql, batch);
+                rowCount += batchCount;
+                batchCount = 0;
+            }
+        }
+        if (batchCount > 0) {
+            sqlExecutor.executeBatch(connection, sql, Arrays.copyOf(batch, batchCount));
+            rowCount += batchCount;
+        }
+        return rowCount;
+    }
+
+    private Class<?> loadDriverClass(Connection connection, String className) {
+        try {
+            return Class.forName(className, false, connection.getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return null;
+        }
+    }
+}
+
+/**
+ * Encodes the rows into CSV lines, all values except null are quoted. The exception of row
+ * source is kept, since the drivers read the lines as a stream and wrap the exception.
+ */
+class CsvLines {
+
+    private final BulkLoader.RowSource rowSource;
+    private final String nullText;
+    private final boolean numericBoolean;
+    private long rowCount;
+    private SQLException sourceException;
+
+    CsvLines(BulkLoader.RowSource rowSource, String nullText, boolean numericBoolean) {
+        this.rowSource = rowSource;
+        this.nullText = nullText;
+        this.numericBoolean = numericBoolean;
+    }
+
+    /**
+     * Returns the next line ending with a line feed, or null if there are no more rows.
+     */
+    String nextLine() throws IOException {
+        Object[] row;
+        try {
+            row = rowSource.next();
+            if (row == null) {
+                return null;
+            }
+        } catch (SQLException ex) {
+            sourceException = ex;
+            throw new IOException(ex.getMessage(), ex);
+        }
+
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendValue(line, row[i]);
+        }
+        rowCount++;
+        return line.append('\n').toString();
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    SQLException toSQLException(Throwable cause) {
+        if (sourceException != null) {
+            return sourceException;
+        }
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        return new SQLException(cause.getMessage(), cause);
+    }
+
+    private void appendValue(StringBuilder line, Object value) throws IOException {
+        if (value instanceof FieldValue) {
+            value = ((FieldValue) value).getValue();
+        }
+        if (value == null) {
+            line.append(nullText);
+            return;
+        }
+
+        String text;
+        if (value instanceof byte[]) {
+            sourceException = new SQLException("The binary value is unsupported in bulk loading");
+            throw new IOException(sourceException.getMessage(), sourceException);
+        } else if (value instanceof Boolean && numericBoolean) {
+            text = (Boolean) value ? "1" : "0";
+        } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)
+                && !(value instanceof Time) && !(value instanceof Timestamp)) {
+            text = new Timestamp(((java.util.Date) value).getTime()).toString();
+        } else {
+            text = value.toString();
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
+
+class CsvReader extends Reader {
+
+    private final CsvLines lines;
+    private String line = "";
+    private int position;
+
+    CsvReader(CsvLines lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (position == line.length()) {
+            line = lines.nextLine();
+            position = 0;
+            if (line == null) {
+                line = "";
+                return -1;
+            }
+        }
+        int count = Math.min(length, line.length() - position);
+        line.getChars(position, position + count, buffer, offset);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+    }
+}
+
+class CsvInputStream extends InputStream {
+
+    private final CsvLines lines;
+    private byte[] bytes = new byte[0];
+    private int position;
+
+    CsvInputStream(CsvLines lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (position == bytes.length) {
+            String line = lines.nextLine();
+            if (line == null) {
+                return -1;
+            }
+            bytes = line.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+        }
+        int count = Math.min(length, bytes.length - position);
+        System.arraycopy(bytes, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+}
@@ -16,17 +16,27 @@
  */
 package com.github.braisdom.objsql;
 
+import com.github.braisdom.objsql.StatementCache.PreparedStatementSql;
+import com.github.braisdom.objsql.StatementCache.StatementKey;
+import com.github.braisdom.objsql.StatementCache.StatementKind;
+import com.github.braisdom.objsql.annotations.DomainModel;
 import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.jdbc.DbUtils;
 import com.github.braisdom.objsql.transition.ColumnTransition;
 import com.github.braisdom.objsql.util.ArrayUtil;
 import com.github.braisdom.objsql.util.StringUtil;
 
+import java.lang.reflect.Array;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
-import java.util.Arrays;
-import java.util.Objects;
-
-import static com.github.braisdom.objsql.util.FunctionWithThrowable.castFunctionWithThrowable;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * The persistence default implementation with JavaBean
@@ -35,6 +45,10 @@ import static com.github.braisdom.objsql.util.FunctionWithThrowable.castFunction
  */
 public class DefaultPersistence<T> extends AbstractPersistence<T> {
 
+    private static final String[] NO_TABLES = new String[0];
+
+    private final boolean groupCommit = isGroupCommit(domainModelDescriptor);
+
     public DefaultPersistence(Class<T> domainClass) {
         super(domainClass);
     }
@@ -55,6 +69,53 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         }
     }
 
+    @Override
+    public int[] save(final T[] dirtyObjects, final boolean skipValidation) throws SQLException {
+        Objects.requireNonNull(dirtyObjects, "The dirtyObjects cannot be null");
+
+        if (!skipValidation) {
+            Validator.Violation[] violations = Tables.validate(dirtyObjects);
+            if (violations.length > 0) {
+                throw new ValidationException(violations);
+            }
+        }
+
+        List<Integer> insertIndexes = new ArrayList<>();
+        List<Integer> updateIndexes = new ArrayList<>();
+        for (int i = 0; i < dirtyObjects.length; i++) {
+            Objects.requireNonNull(dirtyObjects[i], "The dirtyObject cannot be null");
+            if (domainModelDescriptor.getPrimaryValue(dirtyObjects[i]) == null) {
+                insertIndexes.add(i);
+            } else {
+                updateIndexes.add(i);
+            }
+        }
+
+        PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+        if (!updateIndexes.isEmpty()) {
+            ensurePrimaryKeyNotNull(primaryKey);
+        }
+
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+
+            int[] results = new int[dirtyObjects.length];
+            if (!insertIndexes.isEmpty()) {
+                int[] insertResults = insertObjects(connection, sqlExecutor, dialect, metaData,
+                        selectObjects(dirtyObjects, insertIndexes));
+                scatterResults(insertResults, insertIndexes, results);
+            }
+            if (!updateIndexes.isEmpty()) {
+                int[] updateResults = updateObjects(connection, sqlExecutor, dialect, metaData, primaryKey,
+                        selectObjects(dirtyObjects, updateIndexes));
+                scatterResults(updateResults, updateIndexes, results);
+            }
+            return results;
+        });
+    }
+
     @Override
     public T insert(final T dirtyObject, final boolean skipValidation) throws SQLException {
         Objects.requireNonNull(dirtyObject, "The dirtyObject cannot be null");
@@ -67,19 +128,25 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         }
 
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
-        return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
+        // The insert with a generated key is executed at once after the statements queued,
+        // since the key must be written back to the object before returning
+        WriteBehindBuffer writeBehindBuffer = isPrimaryKeyGenerated() ? null
+                : Databases.getWriteBehindBuffer(dataSourceName);
+        return executeWrite(dataSourceName, writeBehindBuffer == null ? null : NO_TABLES, (connection, sqlExecutor) -> {
             DatabaseMetaData metaData = connection.getMetaData();
-            Quoter quoter = Databases.getQuoter();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
 
-            String databaseName = metaData.getDatabaseProductName();
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
             String[] columnNames = domainModelDescriptor.getInsertableColumns();
-            String[] quotedColumnNames = quoter.quoteColumnNames(databaseName, columnNames);
+            PreparedStatementSql statementSql = getInsertStatement(dialect, columnNames);
+            Object[] values = bindValues(dialect, metaData, dirtyObject, statementSql.getFieldNames());
 
-            String sql = formatInsertSql(tableName, columnNames, quotedColumnNames);
-            Object[] values = filterValues(metaData, dirtyObject, columnNames);
+            if (writeBehindBuffer != null) {
+                writeBehindBuffer.add(domainModelDescriptor.getTableName(), statementSql.getSql(), values);
+                return dirtyObject;
+            }
 
-            T domainObject = (T) sqlExecutor.insert(connection, sql, domainModelDescriptor, values);
+            T domainObject = (T) sqlExecutor.insert(connection, statementSql.getSql(),
+                    domainModelDescriptor, values);
             Object primaryValue = Tables.getPrimaryValue(domainObject);
 
             if (primaryValue != null) {
@@ -104,45 +171,350 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
         return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
             DatabaseMetaData metaData = connection.getMetaData();
-            Quoter quoter = Databases.getQuoter();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
 
-            String databaseName = metaData.getDatabaseProductName();
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
-            String[] columnNames = domainModelDescriptor.getInsertableColumns();
-            String[] quotedColumnNames = quoter.quoteColumnNames(databaseName, columnNames);
-            String sql = formatInsertSql(tableName, columnNames, quotedColumnNames);
+            return insertObjects(connection, sqlExecutor, dialect, metaData, dirtyObjects);
+        });
+    }
+
+    @Override
+    public int[] insert(final T[] dirtyObjects, final List<DeadLetter<T>> deadLetters,
+                        final boolean skipValidation) throws SQLException {
+        Objects.requireNonNull(dirtyObjects, "The dirtyObjects cannot be null");
+        Objects.requireNonNull(deadLetters, "The deadLetters cannot be null");
+
+        if (!skipValidation) {
+            Validator.Violation[] violations = Tables.validate(dirtyObjects);
+            if (violations.length > 0) {
+                throw new ValidationException(violations);
+            }
+        }
+
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            PreparedStatementSql statementSql = getInsertStatement(dialect,
+                    domainModelDescriptor.getInsertableColumns());
 
             Object[][] values = new Object[dirtyObjects.length][];
             for (int i = 0; i < dirtyObjects.length; i++) {
-                Object[] rowValues = filterValues(metaData, dirtyObjects[i], columnNames);
-                values[i] = new Object[rowValues.length];
-                for (int t = 0; t < rowValues.length; t++) {
-                    values[i][t] = rowValues[t];
+                values[i] = bindValues(dialect, metaData, dirtyObjects[i], statementSql.getFieldNames());
+            }
+
+            List<DeadLetter<Object[]>> failedRows = new ArrayList<>();
+            int[] results = sqlExecutor.executeBatch(connection, statementSql.getSql(), values, failedRows);
+            for (DeadLetter<Object[]> failedRow : failedRows) {
+                deadLetters.add(new DeadLetter<>(failedRow.getIndex(),
+                        dirtyObjects[failedRow.getIndex()], failedRow.getException()));
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public List<PartitionResult> insertInParallel(final T[] dirtyObjects, final int partitionCount,
+                                                  final boolean allOrNothing, final boolean skipValidation)
+            throws SQLException {
+        Objects.requireNonNull(dirtyObjects, "The dirtyObjects cannot be null");
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("The partitionCount must be positive");
+        }
+
+        if (!skipValidation) {
+            Validator.Violation[] violations = Tables.validate(dirtyObjects);
+            if (violations.length > 0) {
+                throw new ValidationException(violations);
+            }
+        }
+
+        // A transaction cannot span connections
+        if (Databases.getCurrentThreadConnection() != null || dirtyObjects.length == 0) {
+            int[] results = insert(dirtyObjects, true);
+            return Collections.singletonList(new PartitionResult(0, dirtyObjects.length, results, null, true));
+        }
+
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        int partitionSize = (dirtyObjects.length + partitionCount - 1) / partitionCount;
+        int partitions = (dirtyObjects.length + partitionSize - 1) / partitionSize;
+        Connection[] pendingConnections = new Connection[partitions];
+        List<FutureTask<int[]>> futures = new ArrayList<>(partitions);
+
+        for (int i = 0; i < partitions; i++) {
+            int partition = i;
+            Object[] partitionObjects = Arrays.copyOfRange(dirtyObjects, i * partitionSize,
+                    Math.min((i + 1) * partitionSize, dirtyObjects.length));
+            FutureTask<int[]> future = new FutureTask<>(() -> insertPartition(dataSourceName, partitionObjects,
+                    allOrNothing, pendingConnections, partition));
+            // The first partition is inserted in current thread, which waits for the others anyway
+            if (i > 0) {
+                Databases.getPartitionExecutorService().execute(future);
+            }
+            futures.add(future);
+        }
+        futures.get(0).run();
+
+        int[][] results = new int[partitions][];
+        SQLException[] exceptions = new SQLException[partitions];
+        boolean interrupted = false;
+        for (int i = 0; i < partitions; i++) {
+            results[i] = new int[0];
+            // Waits for all partitions, otherwise the pending connections may be leaked
+            while (true) {
+                try {
+                    results[i] = futures.get(i).get();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    exceptions[i] = cause instanceof SQLException ? (SQLException) cause
+                            : new SQLException(cause.getMessage(), cause);
+                    break;
                 }
             }
-            return sqlExecutor.insert(connection, sql, domainModelDescriptor, values);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        boolean[] committed = new boolean[partitions];
+        if (allOrNothing) {
+            completePartitions(pendingConnections, exceptions, committed);
+        } else {
+            for (int i = 0; i < partitions; i++) {
+                committed[i] = exceptions[i] == null;
+            }
+        }
+
+        List<PartitionResult> partitionResults = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            partitionResults.add(new PartitionResult(i * partitionSize,
+                    Math.min((i + 1) * partitionSize, dirtyObjects.length), results[i], exceptions[i], committed[i]));
+        }
+        return partitionResults;
+    }
+
+    private int[] insertPartition(String dataSourceName, Object[] partitionObjects, boolean allOrNothing,
+                                  Connection[] pendingConnections, int partition) throws SQLException {
+        Connection connection = Databases.getConnectionFactory().getConnection(dataSourceName);
+        try {
+            connection.setAutoCommit(false);
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            int[] results = insertObjects(connection, Databases.getSqlExecutor(), dialect,
+                    connection.getMetaData(), partitionObjects);
+            if (allOrNothing) {
+                pendingConnections[partition] = connection;
+            } else {
+                DbUtils.commitAndClose(connection);
+            }
+            return results;
+        } catch (SQLException | RuntimeException ex) {
+            DbUtils.rollbackAndCloseQuietly(connection);
+            throw ex;
+        }
+    }
+
+    /**
+     * Commits the pending connections one by one if all partitions succeeded, otherwise
+     * rolls them back. The commits are not atomic, if a commit fails, its exception is
+     * recorded and the remaining partitions are rolled back, but the partitions committed
+     * before it are kept.
+     */
+    private void completePartitions(Connection[] pendingConnections, SQLException[] exceptions,
+                                    boolean[] committed) {
+        boolean failed = false;
+        for (SQLException exception : exceptions) {
+            failed |= exception != null;
+        }
+
+        for (int i = 0; i < pendingConnections.length; i++) {
+            Connection connection = pendingConnections[i];
+            if (connection == null) {
+                continue;
+            }
+            if (failed) {
+                DbUtils.rollbackAndCloseQuietly(connection);
+            } else {
+                try {
+                    DbUtils.commitAndClose(connection);
+                    committed[i] = true;
+                } catch (SQLException ex) {
+                    DbUtils.rollbackAndCloseQuietly(connection);
+                    exceptions[i] = ex;
+                    failed = true;
+                }
+            }
+        }
+    }
+
+    private int[] insertObjects(Connection connection, SQLExecutor sqlExecutor, DatabaseDialect dialect,
+                                DatabaseMetaData metaData, Object[] dirtyObjects) throws SQLException {
+        String[] columnNames = domainModelDescriptor.getInsertableColumns();
+        PreparedStatementSql statementSql = getInsertStatement(dialect, columnNames);
+        int batchSize = Databases.getBatchSize();
+        int rowsPerStatement = getRowsPerStatement(dialect, statementSql.getFieldNames().length, batchSize);
+        int chunkSize = rowsPerStatement > 1 ? rowsPerStatement : batchSize;
+
+        int[] results = new int[dirtyObjects.length];
+        for (int from = 0; from < dirtyObjects.length; from += chunkSize) {
+            Object[] chunkObjects = Arrays.copyOfRange(dirtyObjects, from,
+                    Math.min(from + chunkSize, dirtyObjects.length));
+            int[] chunkResults;
+
+            if (rowsPerStatement > 1) {
+                chunkResults = insertRows(connection, sqlExecutor, dialect, metaData,
+                        columnNames, statementSql, chunkObjects, chunkObjects.length == rowsPerStatement);
+            } else {
+                Object[][] values = new Object[chunkObjects.length][];
+                for (int i = 0; i < chunkObjects.length; i++) {
+                    values[i] = bindValues(dialect, metaData, (T) chunkObjects[i], statementSql.getFieldNames());
+                }
+                chunkResults = sqlExecutor.insert(connection, statementSql.getSql(),
+                        domainModelDescriptor, values, chunkObjects);
+            }
+            System.arraycopy(chunkResults, 0, results, from, Math.min(chunkResults.length, chunkObjects.length));
+        }
+        return results;
+    }
+
+    @Override
+    public long bulkLoad(final Iterator<? extends T> dirtyObjects, final boolean skipValidation) throws SQLException {
+        Objects.requireNonNull(dirtyObjects, "The dirtyObjects cannot be null");
+
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            // The columns with default value are left to the default of database
+            String[] columnNames = Arrays.stream(domainModelDescriptor.getInsertableColumns())
+                    .filter(columnName -> !domainModelDescriptor.hasDefaultValue(
+                            domainModelDescriptor.getFieldName(columnName)))
+                    .toArray(String[]::new);
+            String[] fieldNames = Arrays.stream(columnNames)
+                    .map(columnName -> domainModelDescriptor.getFieldName(columnName))
+                    .toArray(String[]::new);
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+
+            return Databases.getBulkLoader().load(connection, dialect, tableName,
+                    dialect.quoteColumnNames(columnNames), () -> {
+                        if (!dirtyObjects.hasNext()) {
+                            return null;
+                        }
+                        T dirtyObject = dirtyObjects.next();
+                        if (!skipValidation) {
+                            Validator.Violation[] violations = Tables.validate(dirtyObject);
+                            if (violations.length > 0) {
+                                throw new ValidationException(violations);
+                            }
+                        }
+                        return bindUpsertValues(dialect, metaData, dirtyObject, fieldNames);
+                    });
         });
     }
 
-    private Object[] filterValues(DatabaseMetaData metaData, T dirtyObject, String[] columnNames) {
-        return Arrays.stream(columnNames)
-                .filter(columnName -> {
-                    String fieldName = domainModelDescriptor.getFieldName(columnName);
-                    return !domainModelDescriptor.hasDefaultValue(fieldName);
-                })
-                .map(castFunctionWithThrowable(columnName -> {
-                    String fieldName = domainModelDescriptor.getFieldName(columnName);
-                    FieldValue fieldValue = domainModelDescriptor.getFieldValue(dirtyObject, fieldName);
-
-                    ColumnTransition<T> columnTransition = domainModelDescriptor
-                            .getColumnTransition(fieldName);
-                    if (columnTransition != null) {
-                        return columnTransition.sinking(metaData, dirtyObject,
-                                domainModelDescriptor, fieldName, fieldValue);
-                    } else {
-                        return fieldValue;
-                    }
-                })).toArray(Object[]::new);
+    private PreparedStatementSql getInsertStatement(DatabaseDialect dialect, String[] columnNames) {
+        StatementKey key = new StatementKey(domainModelDescriptor.getDomainModelClass(),
+                domainModelDescriptor.getTableName(), dialect, StatementKind.INSERT, columnNames);
+        return Databases.getStatementCache().get(key, () -> {
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+            String[] quotedColumnNames = dialect.quoteColumnNames(columnNames);
+            String[] fieldNames = Arrays.stream(columnNames)
+                    .map(columnName -> domainModelDescriptor.getFieldName(columnName))
+                    .filter(fieldName -> !domainModelDescriptor.hasDefaultValue(fieldName))
+                    .toArray(String[]::new);
+            return new PreparedStatementSql(formatInsertSql(tableName, columnNames, quotedColumnNames), fieldNames);
+        });
+    }
+
+    /**
+     * Inserts the rows with one multi-row statement, and the returned array has an
+     * element for each row, as the JDBC batch does.
+     *
+     * @param cacheable only the statement of full chunk is cached, the statement of the
+     *                  remaining rows is created each time, otherwise every count of
+     *                  remaining rows would occupy an entry in the statement cache
+     */
+    private int[] insertRows(Connection connection, SQLExecutor sqlExecutor, DatabaseDialect dialect,
+                             DatabaseMetaData metaData, String[] columnNames, PreparedStatementSql statementSql,
+                             Object[] domainObjects, boolean cacheable) throws SQLException {
+        String[] fieldNames = statementSql.getFieldNames();
+        Supplier<PreparedStatementSql> rowsStatementSupplier = () -> {
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+            String[] quotedColumnNames = dialect.quoteColumnNames(columnNames);
+            String sql = formatInsertSql(tableName, columnNames, quotedColumnNames, domainObjects.length);
+            return new PreparedStatementSql(sql, fieldNames);
+        };
+        PreparedStatementSql rowsStatementSql;
+        if (cacheable) {
+            StatementKey key = new StatementKey(domainModelDescriptor.getDomainModelClass(),
+                    domainModelDescriptor.getTableName(), dialect, StatementKind.INSERT, columnNames, domainObjects.length);
+            rowsStatementSql = Databases.getStatementCache().get(key, rowsStatementSupplier);
+        } else {
+            rowsStatementSql = rowsStatementSupplier.get();
+        }
+
+        Object[] values = new Object[fieldNames.length * domainObjects.length];
+        for (int i = 0; i < domainObjects.length; i++) {
+            Object[] rowValues = bindValues(dialect, metaData, (T) domainObjects[i], fieldNames);
+            System.arraycopy(rowValues, 0, values, i * fieldNames.length, fieldNames.length);
+        }
+
+        int[] counts = sqlExecutor.insert(connection, rowsStatementSql.getSql(), domainModelDescriptor,
+                new Object[][]{values}, domainObjects);
+        int[] results = new int[domainObjects.length];
+        Arrays.fill(results, counts.length > 0 && counts[0] == domainObjects.length ? 1 : Statement.SUCCESS_NO_INFO);
+        return results;
+    }
+
+    /**
+     * Returns the number of rows inserted by one statement, the multi-row statement is
+     * used only if the database supports it, and the rows are limited by the maximal number
+     * of bind parameters of the database.
+     */
+    private int getRowsPerStatement(DatabaseDialect dialect, int rowBindCount, int batchSize) {
+        if (!dialect.supportsMultiRowValues()) {
+            return 1;
+        }
+        int maxRows = rowBindCount == 0 ? batchSize : dialect.getMaxBindParameters() / rowBindCount;
+        return Math.max(1, Math.min(Math.min(batchSize, maxRows), dialect.getMaxMultiRowValues()));
+    }
+
+    private PreparedStatementSql getUpdateStatement(DatabaseDialect dialect, PrimaryKey primaryKey,
+                                                    String[] columnNames) {
+        StatementKey key = new StatementKey(domainModelDescriptor.getDomainModelClass(),
+                domainModelDescriptor.getTableName(), dialect, StatementKind.UPDATE, columnNames);
+        return Databases.getStatementCache().get(key, () -> {
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+            String updates = Arrays.stream(dialect.quoteColumnNames(columnNames))
+                    .map(columnName -> columnName + "=?")
+                    .collect(Collectors.joining(","));
+            String[] fieldNames = Arrays.stream(columnNames)
+                    .map(columnName -> domainModelDescriptor.getFieldName(columnName))
+                    .toArray(String[]::new);
+            String sql = formatUpdateSql(tableName, updates, String.format("%s = ?",
+                    dialect.quoteColumnName(primaryKey.name())));
+            return new PreparedStatementSql(sql, fieldNames);
+        });
+    }
+
+    private Object[] bindValues(DatabaseDialect dialect, DatabaseMetaData metaData,
+                                T dirtyObject, String[] fieldNames) throws SQLException {
+        Object[] values = new Object[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            String fieldName = fieldNames[i];
+            FieldValue fieldValue = domainModelDescriptor.getFieldValue(dirtyObject, fieldName);
+
+            ColumnTransition<T> columnTransition = domainModelDescriptor
+                    .getColumnTransition(fieldName);
+            if (columnTransition != null) {
+                values[i] = columnTransition.sinking(dialect, metaData, dirtyObject,
+                        domainModelDescriptor, fieldName, fieldValue);
+            } else {
+                values[i] = fieldValue;
+            }
+        }
+        return values;
     }
 
     @Override
@@ -160,55 +532,382 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
         ensurePrimaryKeyNotNull(primaryKey);
 
-        Quoter quoter = Databases.getQuoter();
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        WriteBehindBuffer writeBehindBuffer = Databases.getWriteBehindBuffer(dataSourceName);
+        return executeWrite(dataSourceName, writeBehindBuffer == null ? null : NO_TABLES, (connection, sqlExecutor) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            String[] columnNames = getUpdateColumns(dirtyObject);
+            if (columnNames.length == 0) {
+                return dirtyObject;
+            }
+
+            PreparedStatementSql statementSql = getUpdateStatement(dialect, primaryKey, columnNames);
+            Object[] values = bindValues(dialect, metaData, dirtyObject, statementSql.getFieldNames());
+            Object[] params = ArrayUtil.appendElement(Object.class, values, id);
+
+            if (writeBehindBuffer != null) {
+                writeBehindBuffer.add(domainModelDescriptor.getTableName(), statementSql.getSql(), params);
+            } else {
+                sqlExecutor.execute(connection, statementSql.getSql(), params);
+            }
+            refreshSnapshot(dirtyObject, statementSql.getFieldNames());
+
+            return dirtyObject;
+        });
+    }
+
+    @Override
+    public int[] update(final T[] dirtyObjects, final boolean skipValidation) throws SQLException {
+        Objects.requireNonNull(dirtyObjects, "The dirtyObjects cannot be null");
+
+        if (!skipValidation) {
+            Validator.Violation[] violations = Tables.validate(dirtyObjects);
+            if (violations.length > 0) {
+                throw new ValidationException(violations);
+            }
+        }
+
+        PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+        ensurePrimaryKeyNotNull(primaryKey);
+
+        for (T dirtyObject : dirtyObjects) {
+            Objects.requireNonNull(dirtyObject, "The dirtyObject cannot be null");
+            if (domainModelDescriptor.getPrimaryValue(dirtyObject) == null) {
+                throw new PersistenceException(String.format("The primary value of %s cannot be null",
+                        domainModelDescriptor.getTableName()));
+            }
+        }
+
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
         return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
             DatabaseMetaData metaData = connection.getMetaData();
-            String[] rawColumnNames = domainModelDescriptor.getUpdatableColumns();
-
-            String[] columnNames = Arrays.stream(rawColumnNames)
-                    .filter(rawColumnName -> {
-                        if (domainModelDescriptor.skipNullOnUpdate()) {
-                            String fieldName = domainModelDescriptor.getFieldName(rawColumnName);
-                            return !domainModelDescriptor.getFieldValue(dirtyObject, fieldName).isNull();
-                        } else {
-                            return true;
-                        }
-                    }).toArray(String[]::new);
-
-            Object[] values = Arrays.stream(columnNames)
-                    .map(castFunctionWithThrowable(columnName -> {
-                        String fieldName = domainModelDescriptor.getFieldName(columnName);
-                        ColumnTransition<T> columnTransition = domainModelDescriptor
-                                .getColumnTransition(fieldName);
-                        FieldValue fieldValue = domainModelDescriptor.getFieldValue(dirtyObject, fieldName);
-                        if (columnTransition != null) {
-                            return columnTransition.sinking(connection.getMetaData(), dirtyObject,
-                                    domainModelDescriptor, fieldName, fieldValue);
-                        } else {
-                            return fieldValue;
-                        }
-                    })).toArray(Object[]::new);
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
 
-            String databaseName = metaData.getDatabaseProductName();
-            String[] quotedColumnNames = quoter.quoteColumnNames(databaseName, columnNames);
-            StringBuilder updatesSql = new StringBuilder();
-            Arrays.stream(quotedColumnNames).forEach(columnName ->
-                    updatesSql.append(columnName).append("=").append("?").append(","));
+            return updateObjects(connection, sqlExecutor, dialect, metaData, primaryKey, dirtyObjects);
+        });
+    }
 
-            ensureNotBlank(updatesSql.toString(), "updates");
-            updatesSql.delete(updatesSql.length() - 1, updatesSql.length());
+    /**
+     * Updates the objects in JDBC batches, the objects are grouped by the columns to update,
+     * which are different only when <code>skipNullOnUpdate</code> or dirty tracking enabled.
+     * The objects without changes will not be updated, and their results are 0.
+     */
+    private int[] updateObjects(Connection connection, SQLExecutor sqlExecutor, DatabaseDialect dialect,
+                                DatabaseMetaData metaData, PrimaryKey primaryKey,
+                                Object[] dirtyObjects) throws SQLException {
+        Map<List<String>, List<Integer>> indexesByColumns = new LinkedHashMap<>();
+        for (int i = 0; i < dirtyObjects.length; i++) {
+            String[] columnNames = getUpdateColumns((T) dirtyObjects[i]);
+            if (columnNames.length == 0) {
+                continue;
+            }
+            indexesByColumns.computeIfAbsent(Arrays.asList(columnNames), columns -> new ArrayList<>()).add(i);
+        }
 
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
-            String sql = formatUpdateSql(tableName, updatesSql.toString(), String.format("%s = ?",
-                    quoter.quoteColumnName(databaseName, primaryKey.name())));
+        int batchSize = Databases.getBatchSize();
+        int[] results = new int[dirtyObjects.length];
+        for (Map.Entry<List<String>, List<Integer>> entry : indexesByColumns.entrySet()) {
+            String[] columnNames = entry.getKey().toArray(new String[0]);
+            List<Integer> indexes = entry.getValue();
+            PreparedStatementSql statementSql = getUpdateStatement(dialect, primaryKey, columnNames);
 
-            sqlExecutor.execute(connection, sql, ArrayUtil.appendElement(Object.class, values, id));
+            for (int from = 0; from < indexes.size(); from += batchSize) {
+                List<Integer> chunkIndexes = indexes.subList(from, Math.min(from + batchSize, indexes.size()));
+                Object[][] values = new Object[chunkIndexes.size()][];
+                for (int i = 0; i < values.length; i++) {
+                    T dirtyObject = (T) dirtyObjects[chunkIndexes.get(i)];
+                    Object[] rowValues = bindValues(dialect, metaData, dirtyObject, statementSql.getFieldNames());
+                    values[i] = ArrayUtil.appendElement(Object.class, rowValues,
+                            domainModelDescriptor.getPrimaryValue(dirtyObject));
+                }
 
-            return dirtyObject;
+                int[] chunkResults = sqlExecutor.executeBatch(connection, statementSql.getSql(), values);
+                scatterResults(chunkResults, chunkIndexes, results);
+                for (Integer index : chunkIndexes) {
+                    refreshSnapshot((T) dirtyObjects[index], statementSql.getFieldNames());
+                }
+            }
+        }
+        return results;
+    }
+
+    private String[] getUpdateColumns(T dirtyObject) throws PersistenceException {
+        String[] columnNames = Arrays.stream(domainModelDescriptor.getUpdatableColumns())
+                .filter(rawColumnName -> {
+                    if (domainModelDescriptor.skipNullOnUpdate()) {
+                        String fieldName = domainModelDescriptor.getFieldName(rawColumnName);
+                        return !domainModelDescriptor.getFieldValue(dirtyObject, fieldName).isNull();
+                    } else {
+                        return true;
+                    }
+                }).toArray(String[]::new);
+
+        if (columnNames.length == 0) {
+            throw new PersistenceException(String.format("Empty updates for %s ",
+                    domainModelDescriptor.getTableName()));
+        }
+
+        if (dirtyObject instanceof DirtyTrackable) {
+            Map<String, Object> snapshot = ((DirtyTrackable) dirtyObject).getSnapshot();
+            if (snapshot != null) {
+                return Arrays.stream(columnNames)
+                        .filter(columnName -> isChanged(dirtyObject, snapshot,
+                                domainModelDescriptor.getFieldName(columnName)))
+                        .toArray(String[]::new);
+            }
+        }
+        return columnNames;
+    }
+
+    /**
+     * Returns true if the field value is not the same instance in snapshot, and not equal
+     * to it, the field absent from the snapshot is regarded as changed.
+     */
+    private boolean isChanged(T dirtyObject, Map<String, Object> snapshot, String fieldName) {
+        if (!snapshot.containsKey(fieldName)) {
+            return true;
+        }
+        Object value = domainModelDescriptor.getFieldValue(dirtyObject, fieldName).getValue();
+        Object snapshotValue = snapshot.get(fieldName);
+        return value != snapshotValue && !Objects.equals(value, snapshotValue);
+    }
+
+    /**
+     * Refreshes the snapshot with the values updated after the transaction commits, so the
+     * object is still dirty if the transaction rolls back.
+     */
+    private void refreshSnapshot(T dirtyObject, String[] fieldNames) {
+        if (dirtyObject instanceof DirtyTrackable) {
+            Map<String, Object> snapshot = ((DirtyTrackable) dirtyObject).getSnapshot();
+            if (snapshot != null) {
+                Object[] values = new Object[fieldNames.length];
+                for (int i = 0; i < fieldNames.length; i++) {
+                    values[i] = domainModelDescriptor.getFieldValue(dirtyObject, fieldNames[i]).getValue();
+                }
+                Databases.afterCommit(() -> {
+                    for (int i = 0; i < fieldNames.length; i++) {
+                        snapshot.put(fieldNames[i], values[i]);
+                    }
+                });
+            }
+        }
+    }
+
+    private Object[] selectObjects(T[] dirtyObjects, List<Integer> indexes) {
+        Object[] selectedObjects = new Object[indexes.size()];
+        for (int i = 0; i < selectedObjects.length; i++) {
+            selectedObjects[i] = dirtyObjects[indexes.get(i)];
+        }
+        return selectedObjects;
+    }
+
+    private void scatterResults(int[] partialResults, List<Integer> indexes, int[] results) {
+        for (int i = 0; i < partialResults.length && i < indexes.size(); i++) {
+            results[indexes.get(i)] = partialResults[i];
+        }
+    }
+
+    @Override
+    public T upsert(final T dirtyObject, final String[] conflictColumns, final String[] updateColumns,
+                    final boolean skipValidation) throws SQLException {
+        Objects.requireNonNull(dirtyObject, "The dirtyObject cannot be null");
+
+        T[] dirtyObjects = (T[]) Array.newInstance(dirtyObject.getClass(), 1);
+        dirtyObjects[0] = dirtyObject;
+        upsert(dirtyObjects, conflictColumns, updateColumns, skipValidation);
+        return dirtyObject;
+    }
+
+    @Override
+    public int[] upsert(final T[] dirtyObjects, final String[] conflictColumns, final String[] updateColumns,
+                        final boolean skipValidation) throws SQLException {
+        Objects.requireNonNull(dirtyObjects, "The dirtyObjects cannot be null");
+
+        if (!skipValidation) {
+            Validator.Violation[] violations = Tables.validate(dirtyObjects);
+            if (violations.length > 0) {
+                throw new ValidationException(violations);
+            }
+        }
+
+        String[] conflictColumnNames = conflictColumns;
+        if (conflictColumnNames == null) {
+            PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+            ensurePrimaryKeyNotNull(primaryKey);
+            conflictColumnNames = new String[]{primaryKey.name()};
+        }
+        ensureColumnsExist(conflictColumnNames);
+        if (conflictColumnNames.length == 0) {
+            throw new PersistenceException(String.format("Empty conflict columns for %s ",
+                    domainModelDescriptor.getTableName()));
+        }
+
+        List<String> conflictColumnList = Arrays.asList(conflictColumnNames);
+        String[] updateColumnNames = updateColumns == null
+                ? Arrays.stream(domainModelDescriptor.getUpdatableColumns())
+                    .filter(columnName -> !conflictColumnList.contains(columnName)).toArray(String[]::new)
+                : updateColumns;
+        ensureColumnsExist(updateColumnNames);
+
+        // The conflict columns must be inserted even if they are generated by database at inserting
+        List<String> columnNames = new ArrayList<>(Arrays.asList(domainModelDescriptor.getInsertableColumns()));
+        for (String conflictColumnName : conflictColumnNames) {
+            if (!columnNames.contains(conflictColumnName)) {
+                columnNames.add(conflictColumnName);
+            }
+        }
+
+        String[] finalConflictColumnNames = conflictColumnNames;
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+
+            return upsertObjects(connection, sqlExecutor, dialect, metaData, columnNames.toArray(new String[0]),
+                    finalConflictColumnNames, updateColumnNames, dirtyObjects);
         });
     }
 
+    private int[] upsertObjects(Connection connection, SQLExecutor sqlExecutor, DatabaseDialect dialect,
+                                DatabaseMetaData metaData, String[] columnNames, String[] conflictColumnNames,
+                                String[] updateColumnNames, Object[] dirtyObjects) throws SQLException {
+        String[] fieldNames = Arrays.stream(columnNames)
+                .map(columnName -> domainModelDescriptor.getFieldName(columnName))
+                .filter(fieldName -> !domainModelDescriptor.hasDefaultValue(fieldName))
+                .toArray(String[]::new);
+        // The columns of three parts are separated by null in the key of statement
+        List<String> keyColumnList = new ArrayList<>(Arrays.asList(columnNames));
+        keyColumnList.add(null);
+        keyColumnList.addAll(Arrays.asList(conflictColumnNames));
+        keyColumnList.add(null);
+        keyColumnList.addAll(Arrays.asList(updateColumnNames));
+        String[] keyColumnNames = keyColumnList.toArray(new String[0]);
+
+        int batchSize = Databases.getBatchSize();
+        int rowsPerStatement = dialect.is(DatabaseType.Oracle) ? 1
+                : getRowsPerStatement(dialect, fieldNames.length, batchSize);
+        int[] conflictFieldIndexes = getConflictFieldIndexes(fieldNames, conflictColumnNames);
+
+        int[] results = new int[dirtyObjects.length];
+        int from = 0;
+        while (from < dirtyObjects.length) {
+            List<Object[]> rowValuesList = new ArrayList<>();
+            int to = from;
+            if (rowsPerStatement > 1) {
+                // A row cannot be affected twice by one statement, so the statement ends
+                // before a repeated conflict key, and the rows are upserted in order as one by one
+                Set<List<Object>> conflictKeys = new HashSet<>();
+                while (to < dirtyObjects.length && to - from < rowsPerStatement) {
+                    Object[] rowValues = bindUpsertValues(dialect, metaData, (T) dirtyObjects[to], fieldNames);
+                    List<Object> conflictKey = getConflictKey(rowValues, conflictFieldIndexes);
+                    if (conflictKey != null && !conflictKeys.add(conflictKey)) {
+                        break;
+                    }
+                    rowValuesList.add(rowValues);
+                    to++;
+                }
+            } else {
+                for (; to < Math.min(from + batchSize, dirtyObjects.length); to++) {
+                    rowValuesList.add(bindUpsertValues(dialect, metaData, (T) dirtyObjects[to], fieldNames));
+                }
+            }
+
+            int rowCount = rowsPerStatement > 1 ? to - from : 1;
+            Supplier<PreparedStatementSql> statementSupplier = () -> {
+                String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+                String sql = formatUpsertSql(dialect, tableName, columnNames, conflictColumnNames,
+                        updateColumnNames, rowCount);
+                return new PreparedStatementSql(sql, fieldNames);
+            };
+            // Only the statements of one row and of full chunk are cached
+            PreparedStatementSql statementSql = rowCount == 1 || rowCount == rowsPerStatement
+                    ? Databases.getStatementCache().get(new StatementKey(domainModelDescriptor.getDomainModelClass(),
+                    domainModelDescriptor.getTableName(), dialect, StatementKind.UPSERT, keyColumnNames, rowCount),
+                    statementSupplier)
+                    : statementSupplier.get();
+
+            Object[][] values;
+            if (rowsPerStatement > 1) {
+                values = new Object[][]{new Object[fieldNames.length * rowValuesList.size()]};
+                for (int i = 0; i < rowValuesList.size(); i++) {
+                    System.arraycopy(rowValuesList.get(i), 0, values[0], i * fieldNames.length, fieldNames.length);
+                }
+            } else {
+                values = rowValuesList.toArray(new Object[0][]);
+            }
+
+            int[] chunkResults = sqlExecutor.executeBatch(connection, statementSql.getSql(), values);
+            if (rowsPerStatement > 1) {
+                Arrays.fill(results, from, to, chunkResults.length > 0 && chunkResults[0] == to - from
+                        ? 1 : Statement.SUCCESS_NO_INFO);
+            } else {
+                System.arraycopy(chunkResults, 0, results, from, Math.min(chunkResults.length, to - from));
+            }
+            from = to;
+        }
+        return results;
+    }
+
+    /**
+     * Returns the indexes of conflict columns in the bound fields, the conflict column with
+     * default value is not bound and it is same for all rows.
+     */
+    private int[] getConflictFieldIndexes(String[] fieldNames, String[] conflictColumnNames) {
+        List<String> fieldNameList = Arrays.asList(fieldNames);
+        return Arrays.stream(conflictColumnNames)
+                .mapToInt(columnName -> fieldNameList.indexOf(domainModelDescriptor.getFieldName(columnName)))
+                .filter(index -> index >= 0)
+                .toArray();
+    }
+
+    /**
+     * Returns null if any value of conflict columns is null, which never conflicts with others.
+     */
+    private List<Object> getConflictKey(Object[] rowValues, int[] conflictFieldIndexes) {
+        List<Object> conflictKey = new ArrayList<>(conflictFieldIndexes.length);
+        for (int conflictFieldIndex : conflictFieldIndexes) {
+            Object value = rowValues[conflictFieldIndex];
+            if (value instanceof FieldValue) {
+                value = ((FieldValue) value).getValue();
+            }
+            if (value == null) {
+                return null;
+            }
+            conflictKey.add(value);
+        }
+        return conflictKey;
+    }
+
+    /**
+     * The value of primary field is bound as itself, because the upsert identifies
+     * the row by it and the bulk load cannot evaluate the default value of primary key,
+     * otherwise it is same as <code>bindValues</code>.
+     */
+    private Object[] bindUpsertValues(DatabaseDialect dialect, DatabaseMetaData metaData,
+                                      T dirtyObject, String[] fieldNames) throws SQLException {
+        Object[] values = bindValues(dialect, metaData, dirtyObject, fieldNames);
+        PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+        if (primaryKey != null) {
+            String primaryFieldName = domainModelDescriptor.getFieldName(primaryKey.name());
+            for (int i = 0; i < fieldNames.length; i++) {
+                if (fieldNames[i].equals(primaryFieldName)) {
+                    values[i] = domainModelDescriptor.getPrimaryValue(dirtyObject);
+                }
+            }
+        }
+        return values;
+    }
+
+    private void ensureColumnsExist(String[] columnNames) throws PersistenceException {
+        for (String columnName : columnNames) {
+            if (domainModelDescriptor.getFieldName(columnName) == null) {
+                throw new PersistenceException(String.format("The %s has no column named %s",
+                        domainModelDescriptor.getTableName(), columnName));
+            }
+        }
+    }
+
     @Override
     public int update(String updates, String predication) throws SQLException {
         Objects.requireNonNull(updates, "The updates cannot be null");
@@ -217,12 +916,11 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         ensureNotBlank(updates, "updates");
         ensureNotBlank(updates, "predication");
 
-        Quoter quoter = Databases.getQuoter();
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
 
         return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
-            String databaseName = connection.getMetaData().getDatabaseProductName();
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
             String sql = formatUpdateSql(tableName, updates, predication);
             return sqlExecutor.execute(connection, sql);
         });
@@ -233,11 +931,10 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         Objects.requireNonNull(predication, "The criteria cannot be null");
         ensureNotBlank(predication, "predication");
 
-        Quoter quoter = Databases.getQuoter();
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
         return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
-            String databaseName = connection.getMetaData().getDatabaseProductName();
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
             String sql = formatDeleteSql(tableName, predication);
             return sqlExecutor.execute(connection, sql);
         });
@@ -250,18 +947,73 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
         PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
         ensurePrimaryKeyNotNull(primaryKey);
 
-        Quoter quoter = Databases.getQuoter();
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        WriteBehindBuffer writeBehindBuffer = Databases.getWriteBehindBuffer(dataSourceName);
+        return executeWrite(dataSourceName, writeBehindBuffer == null ? null : NO_TABLES, (connection, sqlExecutor) -> {
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            StatementKey key = new StatementKey(domainModelDescriptor.getDomainModelClass(),
+                    domainModelDescriptor.getTableName(), dialect, StatementKind.DELETE,
+                    new String[]{primaryKey.name()});
+            PreparedStatementSql statementSql = Databases.getStatementCache().get(key, () -> {
+                String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+                String quotedPrimaryName = dialect.quoteColumnName(primaryKey.name());
+                String sql = formatDeleteSql(tableName, String.format("%s = ?", quotedPrimaryName));
+                return new PreparedStatementSql(sql, new String[0]);
+            });
+
+            if (writeBehindBuffer != null) {
+                writeBehindBuffer.add(domainModelDescriptor.getTableName(), statementSql.getSql(),
+                        new Object[]{id});
+                return 0;
+            }
+            return sqlExecutor.execute(connection, statementSql.getSql(), id);
+        });
+    }
+
+    @Override
+    public int deleteByIds(final Collection<?> ids) throws SQLException {
+        Objects.requireNonNull(ids, "The ids cannot be null");
+
+        PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+        ensurePrimaryKeyNotNull(primaryKey);
+
+        Object[] distinctIds = new LinkedHashSet<>(ids).toArray();
+        if (distinctIds.length == 0) {
+            return 0;
+        }
+
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
         return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
-            String databaseName = connection.getMetaData().getDatabaseProductName();
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
-            String quotedPrimaryName = quoter.quoteColumnName(databaseName, primaryKey.name());
-            String sql = formatDeleteSql(tableName, String.format("%s = %s", quotedPrimaryName, quoter.quoteValue(id)));
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            int chunkSize = dialect.getInListChunkSize(0);
+            int deletedCount = 0;
 
-            return sqlExecutor.execute(connection, sql);
+            for (int start = 0; start < distinctIds.length; start += chunkSize) {
+                Object[] chunkIds = Arrays.copyOfRange(distinctIds, start,
+                        Math.min(start + chunkSize, distinctIds.length));
+                String sql;
+                // Only the full chunks are cached, the tail chunk varies with the count of ids
+                if (chunkIds.length == chunkSize) {
+                    StatementKey key = new StatementKey(domainModelDescriptor.getDomainModelClass(),
+                            domainModelDescriptor.getTableName(), dialect, StatementKind.DELETE_IN,
+                            new String[]{primaryKey.name()}, chunkSize);
+                    sql = Databases.getStatementCache().get(key, () -> new PreparedStatementSql(
+                            formatDeleteByIdsSql(dialect, primaryKey, chunkSize), new String[0])).getSql();
+                } else {
+                    sql = formatDeleteByIdsSql(dialect, primaryKey, chunkIds.length);
+                }
+                deletedCount += sqlExecutor.execute(connection, sql, chunkIds);
+            }
+            return deletedCount;
         });
     }
 
+    private String formatDeleteByIdsSql(DatabaseDialect dialect, PrimaryKey primaryKey, int idCount) {
+        String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+        String quotedPrimaryName = dialect.quoteColumnName(primaryKey.name());
+        return formatDeleteSql(tableName, dialect.formatInPredicate(quotedPrimaryName, idCount));
+    }
+
     @Override
     public int execute(final String sql) throws SQLException {
         Objects.requireNonNull(sql, "The sql cannot be null");
@@ -271,6 +1023,48 @@ public class DefaultPersistence<T> extends AbstractPersistence<T> {
                 sqlExecutor.execute(connection, sql));
     }
 
+    /**
+     * Executes the write in a group commit if the domain model enables it and there is no
+     * transaction in current thread, otherwise executes it in <code>Databases.execute</code>.
+     */
+    private <R> R executeWrite(String dataSourceName, String[] readTableNames,
+                               Databases.DatabaseInvoke<T, R> write) throws SQLException {
+        if (!groupCommit || Databases.getCurrentThreadConnection() != null) {
+            return Databases.execute(dataSourceName, readTableNames, write);
+        }
+
+        Future<R> future = Databases.getGroupCommitExecutor(dataSourceName).submit(write);
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex.getMessage(), ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Returns true if the primary key is not inserted, which is generated by database.
+     */
+    private boolean isPrimaryKeyGenerated() {
+        PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+        return primaryKey != null
+                && !Arrays.asList(domainModelDescriptor.getInsertableColumns()).contains(primaryKey.name());
+    }
+
+    private static boolean isGroupCommit(DomainModelDescriptor domainModelDescriptor) {
+        DomainModel domainModel = (DomainModel) domainModelDescriptor.getDomainModelClass()
+                .getAnnotation(DomainModel.class);
+        return domainModel != null && domainModel.groupCommit();
+    }
+
     private void ensurePrimaryKeyNotNull(PrimaryKey primaryKey) throws PersistenceException {
         if (primaryKey == null) {
             throw new PersistenceException(String.format("The %s has no primary key",
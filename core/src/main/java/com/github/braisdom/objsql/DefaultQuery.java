@@ -16,14 +16,17 @@
  */
 package com.github.braisdom.objsql;
 
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.jdbc.DbUtils;
 import com.github.braisdom.objsql.relation.Relationship;
 import com.github.braisdom.objsql.relation.RelationshipNetwork;
 import com.github.braisdom.objsql.util.StringUtil;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * The default implementation of <code>Query</code> with JavaBean
@@ -39,23 +42,178 @@ public class DefaultQuery<T> extends AbstractQuery<T> {
 
     @Override
     public List<T> execute(Relationship... relationships) throws SQLException {
-        Quoter quoter = Databases.getQuoter();
         String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
-        return Databases.execute(dataSourceName, (connection, sqlExecutor) -> {
-            String databaseName = connection.getMetaData().getDatabaseProductName();
-            String tableName = quoter.quoteTableName(databaseName, domainModelDescriptor.getTableName());
+        return Databases.execute(dataSourceName, getReadTableNames(relationships), (connection, sqlExecutor) -> {
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
             String sql = createQuerySQL(tableName, projection, filter, groupBy,
                     having, orderBy, offset, limit);
             List rows = sqlExecutor.query(connection, sql, domainModelDescriptor, params);
 
             if (relationships.length > 0 && rows.size() > 0) {
-                new RelationshipNetwork(connection, domainModelDescriptor).process(rows, relationships);
+                new RelationshipNetwork(connection, domainModelDescriptor, dataSourceName, parallelRelations)
+                        .process(rows, relationships);
             }
 
             return rows;
         });
     }
 
+    /**
+     * The cursor uses the connection of current transaction if exists, otherwise a new
+     * connection will be opened and closed with the cursor. A streaming cursor of MySQL
+     * and MariaDB occupies the connection of transaction until it is closed.
+     */
+    @Override
+    public QueryCursor<T> iterator() throws SQLException {
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        Databases.flushWriteBehind(getReadTableNames());
+        Connection connection = Databases.getCurrentThreadConnection();
+        boolean connectionOwned = connection == null;
+
+        if (connectionOwned) {
+            connection = Databases.getConnectionFactory().getConnection(dataSourceName);
+        }
+
+        try {
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+            String sql = createQuerySQL(tableName, projection, filter, groupBy,
+                    having, orderBy, offset, limit);
+            SQLExecutor<T> sqlExecutor = Databases.getSqlExecutor();
+            QueryCursor<T> cursor = sqlExecutor.cursor(connection, sql, domainModelDescriptor, fetchSize, params);
+
+            return connectionOwned ? new ConnectionClosingCursor<>(cursor, connection) : cursor;
+        } catch (SQLException | RuntimeException ex) {
+            if (connectionOwned) {
+                DbUtils.closeQuietly(connection);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public List<T> findByIds(Collection<?> ids, Relationship... relationships) throws SQLException {
+        Objects.requireNonNull(ids, "The ids cannot be null");
+        if (offset > 0 || limit > 0 || !StringUtil.isBlank(orderBy)) {
+            throw new IllegalStateException("The offset, limit and orderBy are unsupported by findByIds");
+        }
+
+        PrimaryKey primaryKey = domainModelDescriptor.getPrimaryKey();
+        if (primaryKey == null) {
+            throw new IllegalStateException(String.format("The %s has no primary key",
+                    domainModelDescriptor.getTableName()));
+        }
+
+        Map<Object, Object> idsByKey = new LinkedHashMap<>();
+        for (Object id : ids) {
+            if (id != null) {
+                idsByKey.putIfAbsent(toIdKey(id), id);
+            }
+        }
+        Object[] distinctIds = idsByKey.values().toArray();
+        if (distinctIds.length == 0) {
+            return new ArrayList<>();
+        }
+
+        String dataSourceName = Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass());
+        return Databases.execute(dataSourceName, getReadTableNames(relationships), (connection, sqlExecutor) -> {
+            DatabaseDialect dialect = Databases.getDialect(dataSourceName, connection);
+            String tableName = dialect.quoteTableName(domainModelDescriptor.getTableName());
+            String quotedPrimaryName = dialect.quoteColumnName(primaryKey.name());
+            Object[] filterParams = params == null ? new Object[0] : params;
+            int chunkSize = dialect.getInListChunkSize(filterParams.length);
+            Map<Object, T> rowsById = new HashMap<>();
+
+            for (int start = 0; start < distinctIds.length; start += chunkSize) {
+                int end = Math.min(start + chunkSize, distinctIds.length);
+                String idFilter = dialect.formatInPredicate(quotedPrimaryName, end - start);
+                String chunkFilter = StringUtil.isBlank(filter) ? idFilter
+                        : String.format("(%s) AND %s", filter, idFilter);
+                String sql = createQuerySQL(tableName, projection, chunkFilter, groupBy,
+                        having, null, -1, -1);
+                Object[] chunkParams = new Object[filterParams.length + end - start];
+                System.arraycopy(filterParams, 0, chunkParams, 0, filterParams.length);
+                System.arraycopy(distinctIds, start, chunkParams, filterParams.length, end - start);
+
+                List chunkRows = sqlExecutor.query(connection, sql, domainModelDescriptor, chunkParams);
+                for (Object row : chunkRows) {
+                    rowsById.put(toIdKey(domainModelDescriptor.getPrimaryValue((T) row)), (T) row);
+                }
+            }
+
+            List<T> rows = new ArrayList<>(rowsById.size());
+            for (Object id : distinctIds) {
+                T row = rowsById.get(toIdKey(id));
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+
+            if (relationships.length > 0 && rows.size() > 0) {
+                new RelationshipNetwork(connection, domainModelDescriptor, dataSourceName, parallelRelations)
+                        .process(rows, relationships);
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Returns the tables read by the query, the statements queued by write-behind for
+     * them will be flushed before the query. The tables of relationships and sub-queries
+     * are unknown here, so all statements will be flushed if they exist.
+     */
+    private String[] getReadTableNames(Relationship... relationships) {
+        if (relationships.length > 0 || hasSubQuery(projection) || hasSubQuery(filter)
+                || hasSubQuery(having)) {
+            return null;
+        }
+        return new String[]{domainModelDescriptor.getTableName()};
+    }
+
+    private static boolean hasSubQuery(String clause) {
+        return clause != null && clause.toUpperCase(Locale.ROOT).contains("SELECT");
+    }
+
+    /**
+     * Returns the key for comparing ids, since the type of given ids may be different from
+     * the values mapped from database, such as <code>Integer</code> and <code>Long</code>.
+     * The integral numbers are normalized to <code>Long</code>, and the others to
+     * <code>BigDecimal</code> without trailing zeros, so <code>1</code>, <code>1L</code>
+     * and <code>1.0</code> are the same id.
+     */
+    static Object toIdKey(Object id) {
+        if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        if (!(id instanceof Number)) {
+            return id;
+        }
+
+        BigDecimal decimal;
+        if (id instanceof BigDecimal) {
+            decimal = (BigDecimal) id;
+        } else if (id instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) id);
+        } else {
+            try {
+                decimal = new BigDecimal(id.toString());
+            } catch (NumberFormatException ex) {
+                // NaN and infinity
+                return id;
+            }
+        }
+        decimal = decimal.stripTrailingZeros();
+        if (decimal.scale() <= 0) {
+            try {
+                return decimal.longValueExact();
+            } catch (ArithmeticException ex) {
+                // Out of the range of long
+            }
+        }
+        return decimal;
+    }
+
     @Override
     public T queryFirst(Relationship... relationships) throws SQLException {
         List<T> results = execute(relationships);
@@ -103,3 +261,51 @@ public class DefaultQuery<T> extends AbstractQuery<T> {
         return sql.toString();
     }
 }
+
+class ConnectionClosingCursor<T> implements QueryCursor<T> {
+
+    private final QueryCursor<T> cursor;
+    private final Connection connection;
+    private boolean closed;
+
+    public ConnectionClosingCursor(QueryCursor<T> cursor, Connection connection) {
+        this.cursor = cursor;
+        this.connection = connection;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        boolean hasNext = cursor.hasNext();
+        if (!hasNext) {
+            try {
+                close();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex.getMessage(), ex);
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        return cursor.next();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            cursor.close();
+        } finally {
+            DbUtils.close(connection);
+        }
+    }
+}
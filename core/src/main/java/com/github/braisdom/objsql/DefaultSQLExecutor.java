@@ -16,18 +16,29 @@
  */
 package com.github.braisdom.objsql;
 
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.jdbc.DbUtils;
 import com.github.braisdom.objsql.jdbc.QueryRunner;
 import com.github.braisdom.objsql.jdbc.ResultSetHandler;
 import com.github.braisdom.objsql.reflection.PropertyUtils;
+import com.github.braisdom.objsql.reflection.ReflectionException;
 import com.github.braisdom.objsql.transition.ColumnTransition;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 public class DefaultSQLExecutor<T> implements SQLExecutor<T> {
 
+    private static final int DEFAULT_CURSOR_FETCH_SIZE = 1000;
+
     private final Logger logger = Databases.getLoggerFactory().create(DefaultSQLExecutor.class);
     private final QueryRunner queryRunner;
 
@@ -38,17 +49,19 @@ public class DefaultSQLExecutor<T> implements SQLExecutor<T> {
     @Override
     public List<T> query(Connection connection, String sql, TableRowAdapter tableRowAdapter,
                          Object... params) throws SQLException {
+        DatabaseDialect dialect = getDialect(connection, tableRowAdapter);
         return Databases.sqlBenchmarking(() ->
-                queryRunner.query(connection, sql,
-                        new DomainModelListHandler(tableRowAdapter, connection.getMetaData()), params), logger, sql, params);
+                queryRunner.query(connection, sql, new DomainModelListHandler(tableRowAdapter,
+                        dialect, connection.getMetaData()), params), logger, sql, params);
     }
 
     @Override
     public T insert(Connection connection, String sql, TableRowAdapter tableRowAdapter,
                     Object... params) throws SQLException {
+        DatabaseDialect dialect = getDialect(connection, tableRowAdapter);
         return (T) Databases.sqlBenchmarking(() ->
-                queryRunner.insert(connection, sql,
-                        new DomainModelHandler(tableRowAdapter, connection.getMetaData()), params), logger, sql, params);
+                queryRunner.insert(connection, sql, new DomainModelHandler(tableRowAdapter,
+                        dialect, connection.getMetaData()), params), logger, sql, params);
     }
 
     @Override
@@ -58,21 +71,182 @@ public class DefaultSQLExecutor<T> implements SQLExecutor<T> {
                 queryRunner.insertBatch(connection, sql, params), logger, sql, params);
     }
 
+    @Override
+    public int[] insert(Connection connection, String sql, TableRowAdapter tableRowAdapter,
+                        Object[][] params, Object[] domainObjects) throws SQLException {
+        DatabaseDialect dialect = getDialect(connection, tableRowAdapter);
+        if (!dialect.supportsGeneratedKeys()) {
+            return insert(connection, sql, tableRowAdapter, params);
+        }
+
+        GeneratedKeysHandler keysHandler = new GeneratedKeysHandler(tableRowAdapter, domainObjects);
+        return Databases.sqlBenchmarking(() ->
+                queryRunner.insertBatch(connection, sql, keysHandler, params), logger, sql, (Object[]) params);
+    }
+
+    @Override
+    public QueryCursor<T> cursor(Connection connection, String sql, TableRowAdapter tableRowAdapter,
+                                 int fetchSize, Object... params) throws SQLException {
+        DatabaseDialect dialect = getDialect(connection, tableRowAdapter);
+        DatabaseMetaData databaseMetaData = connection.getMetaData();
+        boolean autoCommit = connection.getAutoCommit();
+        PreparedStatement statement = null;
+
+        try {
+            // PostgreSQL fetches the rows by cursor only in a transaction, otherwise all rows will be loaded
+            if (autoCommit && dialect.isCursorFetchInTransaction()) {
+                connection.setAutoCommit(false);
+            }
+
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(getCursorFetchSize(dialect, fetchSize));
+            queryRunner.fillStatement(statement, params);
+
+            PreparedStatement preparedStatement = statement;
+            ResultSet resultSet = Databases.sqlBenchmarking(() ->
+                    preparedStatement.executeQuery(), logger, sql, params);
+            return new ResultSetCursor<>(connection, preparedStatement, resultSet, tableRowAdapter,
+                    dialect, databaseMetaData, autoCommit != connection.getAutoCommit());
+        } catch (SQLException | RuntimeException ex) {
+            DbUtils.closeQuietly(statement);
+            if (autoCommit != connection.getAutoCommit()) {
+                connection.setAutoCommit(autoCommit);
+            }
+            throw ex;
+        }
+    }
+
     @Override
     public int execute(Connection connection, String sql, Object... params) throws SQLException {
         return Databases.sqlBenchmarking(() ->
                 queryRunner.update(connection, sql, params), logger, sql, params);
     }
+
+    @Override
+    public int[] executeBatch(Connection connection, String sql, Object[][] params) throws SQLException {
+        return Databases.sqlBenchmarking(() ->
+                queryRunner.batch(connection, sql, params), logger, sql, (Object[]) params);
+    }
+
+    @Override
+    public int[] executeBatch(Connection connection, String sql, Object[][] params,
+                              List<DeadLetter<Object[]>> deadLetters) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        boolean savepointSupported = connection.getMetaData().supportsSavepoints();
+        if (!autoCommit && !savepointSupported) {
+            throw new SQLException("The savepoint is required to bisect batches in a transaction");
+        }
+
+        int[] results = new int[params.length];
+        Arrays.fill(results, Statement.EXECUTE_FAILED);
+        int batchSize = Databases.getBatchSize();
+        try {
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            for (int from = 0; from < params.length; from += batchSize) {
+                bisectBatch(connection, sql, params, from, Math.min(from + batchSize, params.length),
+                        savepointSupported, results, deadLetters);
+            }
+            if (autoCommit && savepointSupported) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException ex) {
+            if (autoCommit) {
+                DbUtils.rollback(connection);
+            }
+            throw ex;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Executes the rows from <code>from</code> to <code>to</code>, and bisects them when failed
+     * until the failed row is isolated. The failed rows are rolled back to the savepoint, or
+     * the transaction is committed after each successful batch if the savepoint is unsupported.
+     */
+    private void bisectBatch(Connection connection, String sql, Object[][] params, int from, int to,
+                             boolean savepointSupported, int[] results,
+                             List<DeadLetter<Object[]>> deadLetters) throws SQLException {
+        Savepoint savepoint = savepointSupported ? connection.setSavepoint() : null;
+        int[] batchResults;
+        try {
+            batchResults = executeBatch(connection, sql, Arrays.copyOfRange(params, from, to));
+        } catch (SQLException ex) {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            } else {
+                connection.rollback();
+            }
+
+            if (to - from == 1) {
+                deadLetters.add(new DeadLetter<>(from, params[from], ex));
+            } else {
+                int middle = (from + to) >>> 1;
+                bisectBatch(connection, sql, params, from, middle, savepointSupported, results, deadLetters);
+                bisectBatch(connection, sql, params, middle, to, savepointSupported, results, deadLetters);
+            }
+            return;
+        }
+
+        if (savepoint != null) {
+            releaseSavepoint(connection, savepoint);
+        } else {
+            connection.commit();
+        }
+        System.arraycopy(batchResults, 0, results, from, Math.min(batchResults.length, to - from));
+    }
+
+    /**
+     * Some drivers, such as Oracle, do not support releasing savepoint, the savepoint
+     * will be released at the end of transaction.
+     */
+    private void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException ex) {
+            // ignore, the savepoint is still valid
+        }
+    }
+
+    /**
+     * The MySQL streams the rows one by one only when fetch size is <code>Integer.MIN_VALUE</code>,
+     * a positive fetch size is ignored unless <code>useCursorFetch</code> is enabled in the url.
+     */
+    protected int getCursorFetchSize(DatabaseDialect dialect, int fetchSize) {
+        if (dialect.isStreamingByMinFetchSize()) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize > 0 ? fetchSize : DEFAULT_CURSOR_FETCH_SIZE;
+    }
+
+    /**
+     * Returns the dialect cached for the data source of domain model, the dialect of
+     * a model without <code>DomainModel</code> will be resolved from the connection.
+     */
+    protected DatabaseDialect getDialect(Connection connection, TableRowAdapter tableRowAdapter) throws SQLException {
+        Class domainModelClass = tableRowAdapter.getDomainModelClass();
+        if (domainModelClass != null && domainModelClass.isAnnotationPresent(DomainModel.class)) {
+            return Databases.getDialect(Tables.getDataSourceName(domainModelClass), connection);
+        }
+        return DatabaseDialect.resolve(connection.getMetaData());
+    }
 }
 
 class DomainModelListHandler implements ResultSetHandler<List> {
 
     private final TableRowAdapter tableRowDescriptor;
+    private final DatabaseDialect dialect;
     private final DatabaseMetaData databaseMetaData;
 
-    public DomainModelListHandler(TableRowAdapter tableRowDescriptor,
+    public DomainModelListHandler(TableRowAdapter tableRowDescriptor, DatabaseDialect dialect,
                                   DatabaseMetaData databaseMetaData) {
         this.tableRowDescriptor = tableRowDescriptor;
+        this.dialect = dialect;
         this.databaseMetaData = databaseMetaData;
     }
 
@@ -84,50 +258,295 @@ class DomainModelListHandler implements ResultSetHandler<List> {
             return results;
         }
 
+        RowMappingPlan mappingPlan = new RowMappingPlan(tableRowDescriptor, dialect,
+                databaseMetaData, rs.getMetaData());
         do {
-            results.add(createBean(rs));
+            results.add(mappingPlan.createBean(rs));
         } while (rs.next());
 
         return results;
     }
+}
 
-    private Object createBean(ResultSet rs) throws SQLException {
-        Object bean = tableRowDescriptor.newInstance();
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
+/**
+ * Describes how the columns of a result set are mapped into the fields of domain model,
+ * it is resolved once from the <code>ResultSetMetaData</code>, and the rows will be read
+ * by column index without looking up the column name again.
+ */
+class RowMappingPlan {
 
-        for (int i = 1; i <= columnCount; i++) {
-            String columnName = metaData.getColumnLabel(i);
+    private final TableRowAdapter tableRowDescriptor;
+    private final DatabaseDialect dialect;
+    private final DatabaseMetaData databaseMetaData;
+    private final ResultSetMetaData resultSetMetaData;
+    private final ColumnMapping[] columnMappings;
+    private final TableRowMapper tableRowMapper;
+
+    private Method rawAttributeWriter;
+    private boolean rawAttributeResolved;
+
+    private static class ColumnMapping {
+        private final int columnIndex;
+        private final String columnName;
+        private final String fieldName;
+        private final ColumnTransition columnTransition;
+        private final Class fieldType;
+        private final int mapperFieldIndex;
+
+        private ColumnMapping(int columnIndex, String columnName, String fieldName,
+                              ColumnTransition columnTransition, Class fieldType, int mapperFieldIndex) {
+            this.columnIndex = columnIndex;
+            this.columnName = columnName;
+            this.fieldName = fieldName;
+            this.columnTransition = columnTransition;
+            this.fieldType = fieldType;
+            this.mapperFieldIndex = mapperFieldIndex;
+        }
+    }
+
+    public RowMappingPlan(TableRowAdapter tableRowDescriptor, DatabaseDialect dialect,
+                          DatabaseMetaData databaseMetaData, ResultSetMetaData resultSetMetaData) throws SQLException {
+        this.tableRowDescriptor = tableRowDescriptor;
+        this.dialect = dialect;
+        this.databaseMetaData = databaseMetaData;
+        this.resultSetMetaData = resultSetMetaData;
+        this.columnMappings = new ColumnMapping[resultSetMetaData.getColumnCount()];
+        this.tableRowMapper = resolveRowMapper(tableRowDescriptor);
+
+        for (int i = 0; i < columnMappings.length; i++) {
+            String columnName = resultSetMetaData.getColumnLabel(i + 1);
             String fieldName = tableRowDescriptor.getFieldName(columnName);
-            Object rawColumnValue = rs.getObject(columnName);
-
-            if (fieldName != null) {
-                if (tableRowDescriptor.isTransitable(fieldName)) {
-                    ColumnTransition columnTransition = tableRowDescriptor.getColumnTransition(fieldName);
-                    Object value = columnTransition == null ? rawColumnValue : columnTransition
-                            .rising(databaseMetaData, metaData, bean, tableRowDescriptor, fieldName, rawColumnValue);
-
-                    Class fieldType = tableRowDescriptor.getFieldType(fieldName);
-                    if (fieldType != null && value != null &&
-                            !fieldType.isAssignableFrom(value.getClass())) {
-                        throw new ClassCastException(String.format("Inconsistent data types field:%s(%s) " +
-                                        "vs column:%s(%s) in %s", fieldName, fieldType.getName(), columnName,
-                                value.getClass().getName(), bean.getClass().getName()));
-                    }
+            ColumnTransition columnTransition = null;
+            Class fieldType = null;
+            int mapperFieldIndex = -1;
+
+            if (fieldName != null && tableRowDescriptor.isTransitable(fieldName)) {
+                columnTransition = tableRowDescriptor.getColumnTransition(fieldName);
+                fieldType = tableRowDescriptor.getFieldType(fieldName);
+            } else if (fieldName != null && tableRowMapper != null
+                    && isLosslessColumn(tableRowDescriptor.getFieldType(fieldName),
+                    resultSetMetaData.getColumnType(i + 1))
+                    && isNullSafe(tableRowDescriptor.getFieldType(fieldName), resultSetMetaData.isNullable(i + 1))) {
+                mapperFieldIndex = indexOf(tableRowMapper.getFieldNames(), fieldName);
+            }
+            columnMappings[i] = new ColumnMapping(i + 1, columnName, fieldName,
+                    columnTransition, fieldType, mapperFieldIndex);
+        }
+    }
 
-                    tableRowDescriptor.setFieldValue(bean, fieldName, value);
-                } else {
-                    tableRowDescriptor.setFieldValue(bean, fieldName, rawColumnValue);
-                }
+    public Object createBean(ResultSet rs) throws SQLException {
+        Object bean = tableRowDescriptor.newInstance();
+
+        for (ColumnMapping columnMapping : columnMappings) {
+            if (columnMapping.mapperFieldIndex >= 0) {
+                tableRowMapper.mapColumn(bean, columnMapping.mapperFieldIndex, rs, columnMapping.columnIndex);
+                continue;
+            }
+
+            Object rawColumnValue = rs.getObject(columnMapping.columnIndex);
+
+            if (columnMapping.fieldName == null) {
+                writeRawAttribute(bean, columnMapping.columnName, rawColumnValue);
+            } else if (columnMapping.columnTransition == null) {
+                tableRowDescriptor.setFieldValue(bean, columnMapping.fieldName, rawColumnValue);
             } else {
-                if (PropertyUtils.supportRawAttribute(bean)) {
-                    PropertyUtils.writeRawAttribute(bean, columnName, rawColumnValue);
+                Object value = columnMapping.columnTransition.rising(dialect, databaseMetaData,
+                        resultSetMetaData, bean, tableRowDescriptor, columnMapping.fieldName, rawColumnValue);
+
+                if (columnMapping.fieldType != null && value != null &&
+                        !columnMapping.fieldType.isAssignableFrom(value.getClass())) {
+                    throw new ClassCastException(String.format("Inconsistent data types field:%s(%s) " +
+                                    "vs column:%s(%s) in %s", columnMapping.fieldName,
+                            columnMapping.fieldType.getName(), columnMapping.columnName,
+                            value.getClass().getName(), bean.getClass().getName()));
                 }
+
+                tableRowDescriptor.setFieldValue(bean, columnMapping.fieldName, value);
             }
         }
 
+        if (bean instanceof DirtyTrackable) {
+            takeSnapshot((DirtyTrackable) bean);
+        }
+
         return bean;
     }
+
+    private void takeSnapshot(DirtyTrackable bean) {
+        Map<String, Object> snapshot = new HashMap<>(columnMappings.length * 2);
+        for (ColumnMapping columnMapping : columnMappings) {
+            if (columnMapping.fieldName != null) {
+                snapshot.put(columnMapping.fieldName, PropertyUtils.read(bean, columnMapping.fieldName));
+            }
+        }
+        bean.setSnapshot(snapshot);
+    }
+
+    /**
+     * The generated row mapper writes the field by setter directly, so it is used only
+     * when the fields are written by <code>BeanModelDescriptor</code> itself, a customized
+     * descriptor keeps the reflection way.
+     */
+    private static TableRowMapper resolveRowMapper(TableRowAdapter tableRowDescriptor) {
+        if (BeanModelDescriptor.class.equals(tableRowDescriptor.getClass())) {
+            return Tables.getRowMapper(tableRowDescriptor.getDomainModelClass());
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the column can be read by the typed getter of field without narrowing,
+     * such as a <code>BIGINT</code> read by <code>getInt</code>, the others are mapped with
+     * reflection, which rejects the value instead of truncating it.
+     */
+    static boolean isLosslessColumn(Class fieldType, int columnType) {
+        if (fieldType == null) {
+            return false;
+        } else if (String.class.equals(fieldType)) {
+            return columnType == Types.CHAR || columnType == Types.VARCHAR || columnType == Types.LONGVARCHAR
+                    || columnType == Types.NCHAR || columnType == Types.NVARCHAR || columnType == Types.LONGNVARCHAR;
+        } else if (Long.class.equals(fieldType) || long.class.equals(fieldType)) {
+            return columnType == Types.BIGINT || isLosslessColumn(Integer.class, columnType);
+        } else if (Integer.class.equals(fieldType) || int.class.equals(fieldType)) {
+            return columnType == Types.INTEGER || isLosslessColumn(Short.class, columnType);
+        } else if (Short.class.equals(fieldType) || short.class.equals(fieldType)) {
+            return columnType == Types.SMALLINT || isLosslessColumn(Byte.class, columnType);
+        } else if (Byte.class.equals(fieldType) || byte.class.equals(fieldType)) {
+            return columnType == Types.TINYINT;
+        } else if (Double.class.equals(fieldType) || double.class.equals(fieldType)) {
+            return columnType == Types.DOUBLE || columnType == Types.FLOAT || columnType == Types.REAL;
+        } else if (Float.class.equals(fieldType) || float.class.equals(fieldType)) {
+            return columnType == Types.REAL;
+        } else if (Boolean.class.equals(fieldType) || boolean.class.equals(fieldType)) {
+            return columnType == Types.BOOLEAN || columnType == Types.BIT;
+        }
+        return false;
+    }
+
+    /**
+     * The typed getter returns 0 or false for SQL NULL, so a primitive field is mapped by
+     * the row mapper only from a column without nulls, and the NULL is rejected by reflection.
+     */
+    private static boolean isNullSafe(Class fieldType, int nullable) {
+        return !fieldType.isPrimitive() || nullable == ResultSetMetaData.columnNoNulls;
+    }
+
+    private static int indexOf(String[] fieldNames, String fieldName) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (fieldNames[i].equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void writeRawAttribute(Object bean, String columnName, Object rawColumnValue) {
+        if (!rawAttributeResolved) {
+            if (PropertyUtils.supportRawAttribute(bean)) {
+                try {
+                    rawAttributeWriter = bean.getClass().getMethod("setRawAttribute", String.class, Object.class);
+                } catch (NoSuchMethodException ex) {
+                    throw new ReflectionException(ex.getMessage(), ex);
+                }
+            }
+            rawAttributeResolved = true;
+        }
+
+        if (rawAttributeWriter != null) {
+            try {
+                rawAttributeWriter.invoke(bean, columnName, rawColumnValue);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                throw new ReflectionException(ex.getMessage(), ex);
+            }
+        }
+    }
+}
+
+/**
+ * Hydrates the domain object when it is fetched from the result set, and releases the
+ * statement and result set when the rows are exhausted or it is closed.
+ */
+class ResultSetCursor<T> implements QueryCursor<T> {
+
+    private final Connection connection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final TableRowAdapter tableRowDescriptor;
+    private final DatabaseDialect dialect;
+    private final DatabaseMetaData databaseMetaData;
+    private final boolean restoreAutoCommit;
+
+    private RowMappingPlan mappingPlan;
+    private boolean fetched;
+    private boolean hasRow;
+    private boolean closed;
+
+    public ResultSetCursor(Connection connection, Statement statement, ResultSet resultSet,
+                           TableRowAdapter tableRowDescriptor, DatabaseDialect dialect,
+                           DatabaseMetaData databaseMetaData, boolean restoreAutoCommit) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.tableRowDescriptor = tableRowDescriptor;
+        this.dialect = dialect;
+        this.databaseMetaData = databaseMetaData;
+        this.restoreAutoCommit = restoreAutoCommit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        try {
+            if (!fetched) {
+                hasRow = resultSet.next();
+                fetched = true;
+            }
+            if (!hasRow) {
+                close();
+            }
+            return hasRow;
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            if (mappingPlan == null) {
+                mappingPlan = new RowMappingPlan(tableRowDescriptor, dialect,
+                        databaseMetaData, resultSet.getMetaData());
+            }
+            fetched = false;
+            return (T) mappingPlan.createBean(resultSet);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            DbUtils.closeQuietly(resultSet);
+            DbUtils.close(statement);
+        } finally {
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
 }
 
 class DomainModelHandler implements ResultSetHandler<Object> {
@@ -136,10 +555,13 @@ class DomainModelHandler implements ResultSetHandler<Object> {
             .asList(new String[]{"last_insert_rowid()", "GENERATED_KEY", "GENERATED_KEYS"});
 
     private final TableRowAdapter tableRowDescriptor;
+    private final DatabaseDialect dialect;
     private final DatabaseMetaData databaseMetaData;
 
-    public DomainModelHandler(TableRowAdapter tableRowDescriptor, DatabaseMetaData databaseMetaData) {
+    public DomainModelHandler(TableRowAdapter tableRowDescriptor, DatabaseDialect dialect,
+                              DatabaseMetaData databaseMetaData) {
         this.tableRowDescriptor = tableRowDescriptor;
+        this.dialect = dialect;
         this.databaseMetaData = databaseMetaData;
     }
 
@@ -165,7 +587,7 @@ class DomainModelHandler implements ResultSetHandler<Object> {
                     if (tableRowDescriptor.isTransitable(fieldName)) {
                         ColumnTransition columnTransition = tableRowDescriptor.getColumnTransition(fieldName);
                         Object value = columnTransition == null ? rawColumnValue : columnTransition
-                                .rising(databaseMetaData, metaData, bean, tableRowDescriptor, fieldName, rawColumnValue);
+                                .rising(dialect, databaseMetaData, metaData, bean, tableRowDescriptor, fieldName, rawColumnValue);
 
                         Class fieldType = tableRowDescriptor.getFieldType(fieldName);
                         if (fieldType != null && value != null &&
@@ -190,3 +612,76 @@ class DomainModelHandler implements ResultSetHandler<Object> {
         return bean;
     }
 }
+
+/**
+ * Writes the generated keys back into the domain objects in order, the keys are ignored
+ * if the number of keys is different from the domain objects, for example, some databases
+ * return only the last key for a multi-row insert.
+ */
+class GeneratedKeysHandler implements ResultSetHandler<Integer> {
+
+    private static final List<String> AUTO_GENERATE_COLUMN_NAMES = Arrays
+            .asList(new String[]{"last_insert_rowid()", "GENERATED_KEY", "GENERATED_KEYS"});
+
+    private final TableRowAdapter tableRowAdapter;
+    private final Object[] domainObjects;
+
+    public GeneratedKeysHandler(TableRowAdapter tableRowAdapter, Object[] domainObjects) {
+        this.tableRowAdapter = tableRowAdapter;
+        this.domainObjects = domainObjects;
+    }
+
+    @Override
+    public Integer handle(ResultSet rs) throws SQLException {
+        if (rs == null) {
+            return 0;
+        }
+
+        int keyColumnIndex = getKeyColumnIndex(rs.getMetaData());
+        List<Object> keys = new ArrayList<>(domainObjects.length);
+        while (rs.next()) {
+            if (keys.size() == domainObjects.length) {
+                return 0;
+            }
+            keys.add(rs.getObject(keyColumnIndex));
+        }
+
+        if (keys.size() != domainObjects.length) {
+            return 0;
+        }
+
+        for (int i = 0; i < domainObjects.length; i++) {
+            Object key = keys.get(i);
+            if (key != null && !hasPrimaryValue(domainObjects[i])) {
+                tableRowAdapter.setGeneratedKey(domainObjects[i], key);
+            }
+        }
+        return keys.size();
+    }
+
+    private boolean hasPrimaryValue(Object domainObject) {
+        if (tableRowAdapter instanceof DomainModelDescriptor) {
+            return ((DomainModelDescriptor) tableRowAdapter).getPrimaryValue(domainObject) != null;
+        }
+        return false;
+    }
+
+    /**
+     * PostgreSQL returns all columns of the inserted rows as the generated keys,
+     * so the column of primary key is located by its name.
+     */
+    private int getKeyColumnIndex(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        if (columnCount > 1 && tableRowAdapter instanceof DomainModelDescriptor) {
+            PrimaryKey primaryKey = ((DomainModelDescriptor) tableRowAdapter).getPrimaryKey();
+            for (int i = 1; i <= columnCount; i++) {
+                String columnName = metaData.getColumnLabel(i);
+                if (AUTO_GENERATE_COLUMN_NAMES.contains(columnName)
+                        || (primaryKey != null && primaryKey.name().equalsIgnoreCase(columnName))) {
+                    return i;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.util.Map;
+
+/**
+ * A domain object tracking its changes after queried from database, it is implemented
+ * by the domain model with <code>@DomainModel(dirtyTracking = true)</code>. The snapshot
+ * holds the field values at querying, and only the fields different from the snapshot
+ * will be updated.<br/>
+ *
+ * The snapshot is refreshed with the values updated after the transaction commits, and kept
+ * if it rolls back, so the object can be updated again in a new transaction. The transaction
+ * managed by yourself with <code>Databases.setCurrentThreadConnection</code> should invoke
+ * <code>Databases.runAfterCommitActions</code> after commit.<br/>
+ *
+ * <b>Notice:</b> The value in snapshot is the same instance of the field, so a mutable
+ * value changed in place, such as <code>java.util.Date</code>, cannot be detected.
+ */
+public interface DirtyTrackable {
+
+    /**
+     * Returns the field values at querying, or null if the object is not queried
+     * from database.
+     */
+    Map<String, Object> getSnapshot();
+
+    void setSnapshot(Map<String, Object> snapshot);
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.jdbc.DbUtils;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Commits the small writes submitted from many threads in one transaction, the writes are
+ * collected until the window elapses or the maximal count of writes is reached, then they
+ * are executed in one connection of the data source, and the futures of callers are
+ * completed after the shared commit. It trades the latency of each write for the throughput.
+ *
+ * <p>The writes are submitted to a lock-free queue, and executed by a daemon thread. A failed
+ * write is removed from the group and the others are executed again in a new transaction.
+ * The failures of writes, including errors, fail their own futures only, and the daemon
+ * thread keeps running. The writes are executed with a transaction context bound, so their
+ * actions registered to run after commit, such as refreshing the snapshots of dirty tracking,
+ * run only once after the shared commit.
+ */
+public class GroupCommitExecutor {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final String dataSourceName;
+    private volatile long windowNanos;
+    private volatile int maxWrites;
+    private final ConcurrentLinkedQueue<PendingWrite<?>> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Thread committer;
+    private volatile boolean closed;
+
+    /**
+     * @param windowMicros the time of collecting writes after the first write of a group
+     * @param maxWrites    the maximal count of writes committed together
+     */
+    public GroupCommitExecutor(String dataSourceName, long windowMicros, int maxWrites) {
+        this.dataSourceName = dataSourceName;
+        setWindow(windowMicros, maxWrites);
+        this.committer = new Thread(this::collectAndCommit, "objsql-group-commit-" + THREAD_COUNT.incrementAndGet());
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Changes the window of group commit, which takes effect from the next group.
+     *
+     * @param windowMicros the time of collecting writes after the first write of a group
+     * @param maxWrites    the maximal count of writes committed together
+     */
+    public void setWindow(long windowMicros, int maxWrites) {
+        if (windowMicros < 0) {
+            throw new IllegalArgumentException("The windowMicros cannot be negative");
+        }
+        if (maxWrites <= 0) {
+            throw new IllegalArgumentException("The maxWrites must be positive");
+        }
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxWrites = maxWrites;
+    }
+
+    /**
+     * Submits the write, the future will be completed with the result of write after
+     * the group is committed, or the exception of the write or commit.
+     */
+    public <R> CompletableFuture<R> submit(Databases.DatabaseInvoke<?, R> write) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("The group commit executor is closed"));
+            return future;
+        }
+        pendingWrites.offer(new PendingWrite<>(write, future));
+        LockSupport.unpark(committer);
+        return future;
+    }
+
+    /**
+     * Stops collecting writes, the writes not committed yet will be failed.
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(committer);
+    }
+
+    private void collectAndCommit() {
+        while (!closed) {
+            PendingWrite<?> firstWrite = pendingWrites.poll();
+            if (firstWrite == null) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            List<PendingWrite<?>> group = new ArrayList<>();
+            group.add(firstWrite);
+            long deadline = System.nanoTime() + windowNanos;
+            int groupMaxWrites = maxWrites;
+            while (group.size() < groupMaxWrites) {
+                PendingWrite<?> pendingWrite = pendingWrites.poll();
+                if (pendingWrite != null) {
+                    group.add(pendingWrite);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || closed) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            commit(group);
+        }
+
+        PendingWrite<?> pendingWrite;
+        while ((pendingWrite = pendingWrites.poll()) != null) {
+            pendingWrite.future.completeExceptionally(new IllegalStateException("The group commit executor is closed"));
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> group) {
+        Connection connection = null;
+        try {
+            connection = Databases.getConnectionFactory().getConnection(dataSourceName);
+            connection.setAutoCommit(false);
+            SQLExecutor sqlExecutor = Databases.getSqlExecutor();
+
+            while (!group.isEmpty()) {
+                // The context defers the side effects of writes, such as refreshing the
+                // snapshots, until the commit, since the writes are executed again if rolled back
+                ConnectionContext connectionContext = new ConnectionContext(connection);
+                Object[] results = new Object[group.size()];
+                int failedIndex = -1;
+                Throwable failure = null;
+
+                for (int i = 0; i < group.size(); i++) {
+                    PendingWrite<?> pendingWrite = group.get(i);
+                    Connection groupConnection = connection;
+                    try {
+                        results[i] = Databases.executeWithContext(connectionContext,
+                                () -> pendingWrite.write.apply(groupConnection, sqlExecutor));
+                    } catch (Throwable ex) {
+                        // Any failure, even an error, fails the write only, so the committer keeps running
+                        failedIndex = i;
+                        failure = ex;
+                        break;
+                    }
+                }
+
+                if (failure == null) {
+                    connection.commit();
+                    try {
+                        connectionContext.runAfterCommitActions();
+                    } finally {
+                        for (int i = 0; i < group.size(); i++) {
+                            group.get(i).complete(results[i]);
+                        }
+                    }
+                    return;
+                }
+
+                connection.rollback();
+                group.remove(failedIndex).future.completeExceptionally(failure);
+            }
+        } catch (Throwable ex) {
+            // The writes already completed after the commit are not affected
+            DbUtils.rollbackAndCloseQuietly(connection);
+            connection = null;
+            for (PendingWrite<?> pendingWrite : group) {
+                pendingWrite.future.completeExceptionally(ex);
+            }
+        } finally {
+            DbUtils.closeQuietly(connection);
+        }
+    }
+
+    private static class PendingWrite<R> {
+
+        private final Databases.DatabaseInvoke<?, R> write;
+        private final CompletableFuture<R> future;
+
+        PendingWrite(Databases.DatabaseInvoke<?, R> write, CompletableFuture<R> future) {
+            this.write = write;
+            this.future = future;
+        }
+
+        void complete(Object result) {
+            future.complete((R) result);
+        }
+    }
+}
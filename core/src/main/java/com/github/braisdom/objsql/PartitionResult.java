@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.SQLException;
+
+/**
+ * The result of a partition of objects inserted in parallel, the partition covers the
+ * objects from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive).
+ */
+public class PartitionResult {
+
+    private final int fromIndex;
+    private final int toIndex;
+    private final int[] results;
+    private final SQLException exception;
+    private final boolean committed;
+
+    public PartitionResult(int fromIndex, int toIndex, int[] results, SQLException exception,
+                           boolean committed) {
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.results = results;
+        this.exception = exception;
+        this.committed = committed;
+    }
+
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    /**
+     * Returns the results of objects in the partition, as the JDBC batch does,
+     * or an empty array if the partition failed.
+     */
+    public int[] getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the exception of inserting or committing the partition, or null if the
+     * partition succeeded.
+     */
+    public SQLException getException() {
+        return exception;
+    }
+
+    /**
+     * Returns true if the partition has no exception, the partition may still be rolled
+     * back for the failure of others, which is told by <code>isCommitted</code>.
+     */
+    public boolean isSucceeded() {
+        return exception == null;
+    }
+
+    /**
+     * Returns true if the objects of partition are committed, or kept in the transaction
+     * of current thread.
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+}
@@ -17,6 +17,10 @@
 package com.github.braisdom.objsql;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface Persistence<T> {
 
@@ -26,13 +30,142 @@ public interface Persistence<T> {
 
     int[] insert(T[] dirtyObjects, boolean skipValidation) throws SQLException;
 
+    /**
+     * Inserts the objects in JDBC batches, a failed batch is bisected to isolate the failed
+     * objects, which are added to the dead letters with their exceptions, and the other
+     * objects are committed. The generated keys are not written back.
+     *
+     * @return the results of objects, <code>Statement.EXECUTE_FAILED</code> for the failed objects
+     * @see SQLExecutor#executeBatch(java.sql.Connection, String, Object[][], List)
+     */
+    default int[] insert(T[] dirtyObjects, List<DeadLetter<T>> deadLetters,
+                         boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The insert is unsupported");
+    }
+
+    /**
+     * Inserts the objects in partitions, each partition is inserted in its own connection
+     * and transaction, the first partition in current thread and the others on the partition
+     * executor of <code>Databases</code>. The objects are inserted in one partition if there
+     * is a transaction in current thread.
+     *
+     * @param partitionCount the maximal count of partitions, which should not exceed the
+     *                       connections available
+     * @param allOrNothing   if true, the partitions are committed one by one after all of them
+     *                       succeed, otherwise they are all rolled back. It is best-effort
+     *                       without two-phase commit: if a commit fails, the partitions after it
+     *                       are rolled back but those before it are kept. If false, each partition
+     *                       is committed on its own
+     * @return the results of partitions, the exceptions and the committed partitions are
+     *         reported in them
+     */
+    default List<PartitionResult> insertInParallel(T[] dirtyObjects, int partitionCount, boolean allOrNothing,
+                                                   boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The insertInParallel is unsupported");
+    }
+
+    /**
+     * Inserts the objects without primary value and updates the others, the updates
+     * touching the same columns are executed in JDBC batch.
+     */
+    default int[] save(T[] dirtyObjects, boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The save is unsupported");
+    }
+
+    /**
+     * Loads the objects through the bulk-load path of database, the objects are pulled
+     * from the iterator while loading. The primary value is loaded as itself, so the primary
+     * key should be skipped on inserting if it is generated by database, and the generated
+     * keys are not written back.
+     *
+     * @return the count of rows loaded
+     * @see BulkLoader
+     */
+    default long bulkLoad(Iterator<? extends T> dirtyObjects, boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The bulkLoad is unsupported");
+    }
+
     T update(Object id, T dirtyObject, boolean skipValidation) throws SQLException;
 
+    /**
+     * Updates the objects by their primary values, the updates touching the same
+     * columns are executed in JDBC batch.
+     */
+    default int[] update(T[] dirtyObjects, boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The update is unsupported");
+    }
+
     int update(String updates, String predication) throws SQLException;
 
+    default T upsert(T dirtyObject, boolean skipValidation) throws SQLException {
+        return upsert(dirtyObject, null, null, skipValidation);
+    }
+
+    /**
+     * Inserts the object, or updates the existing row conflicting with it, in one statement.
+     *
+     * @param conflictColumns the columns identifying an existing row, the primary key if null
+     * @param updateColumns   the columns updated for an existing row, all updatable columns
+     *                        except the conflict columns if null
+     */
+    default T upsert(T dirtyObject, String[] conflictColumns, String[] updateColumns,
+                     boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The upsert is unsupported");
+    }
+
+    default int[] upsert(T[] dirtyObjects, boolean skipValidation) throws SQLException {
+        return upsert(dirtyObjects, null, null, skipValidation);
+    }
+
+    /**
+     * Upserts the objects in order, the objects with the same values of conflict columns
+     * are allowed, and the later one is applied after the earlier one as upserting them
+     * one by one.
+     */
+    default int[] upsert(T[] dirtyObjects, String[] conflictColumns, String[] updateColumns,
+                         boolean skipValidation) throws SQLException {
+        throw new UnsupportedOperationException("The upsert is unsupported");
+    }
+
     int delete(Object id) throws SQLException;
 
+    /**
+     * Inserts the object on the executor of data source, the object should not be
+     * changed until the future completes.
+     *
+     * @see Databases#executeAsync(String, Databases.AsyncExecutor)
+     */
+    default CompletableFuture<T> insertAsync(T dirtyObject, boolean skipValidation) {
+        throw new UnsupportedOperationException("The insertAsync is unsupported");
+    }
+
+    default CompletableFuture<int[]> insertAsync(T[] dirtyObjects, boolean skipValidation) {
+        throw new UnsupportedOperationException("The insertAsync is unsupported");
+    }
+
+    default CompletableFuture<T> saveAsync(T dirtyObject, boolean skipValidation) {
+        throw new UnsupportedOperationException("The saveAsync is unsupported");
+    }
+
+    default CompletableFuture<T> updateAsync(Object id, T dirtyObject, boolean skipValidation) {
+        throw new UnsupportedOperationException("The updateAsync is unsupported");
+    }
+
+    default CompletableFuture<Integer> deleteAsync(Object id) {
+        throw new UnsupportedOperationException("The deleteAsync is unsupported");
+    }
+
     int delete(String predication) throws SQLException;
 
+    /**
+     * Deletes the rows by primary values, the values are bound into <code>IN (...)</code>
+     * lists which are split under the limits of database and executed in one connection.
+     *
+     * @return the count of rows deleted
+     */
+    default int deleteByIds(Collection<?> ids) throws SQLException {
+        throw new UnsupportedOperationException("The deleteByIds is unsupported");
+    }
+
     int execute(String sql) throws SQLException;
 }
@@ -19,7 +19,14 @@ package com.github.braisdom.objsql;
 import com.github.braisdom.objsql.relation.Relationship;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A programmable structure for SQL statement.
@@ -41,7 +48,103 @@ public interface Query<T> {
 
     Query orderBy(String orderBy);
 
+    /**
+     * Gives the JDBC driver a hint about the number of rows fetched from database
+     * when the query is executed as a cursor.
+     */
+    default Query fetchSize(int fetchSize) {
+        throw new UnsupportedOperationException("The fetchSize is unsupported");
+    }
+
+    /**
+     * Loads the independent relationships of the query concurrently on separate connections
+     * when the query is executed outside transaction. A query with N relationships of its
+     * domain model holds up to N connections at once, and the siblings are loaded on
+     * <code>Databases.getRelationExecutorService</code>. A sibling which has not got its
+     * connection when the query finishes its own relationship is loaded with the
+     * connection of query instead, so an exhausted pool slows the query but never stalls it.
+     */
+    default Query parallelRelations(boolean parallelRelations) {
+        throw new UnsupportedOperationException("The parallelRelations is unsupported");
+    }
+
     List<T> execute(Relationship... relationships) throws SQLException;
 
     T queryFirst(Relationship... relationships) throws SQLException;
+
+    /**
+     * Executes the query on the executor of data source, the query should not be
+     * changed until the future completes.
+     *
+     * @see Databases#executeAsync(String, Databases.AsyncExecutor)
+     */
+    default CompletableFuture<List<T>> executeAsync(Relationship... relationships) {
+        throw new UnsupportedOperationException("The executeAsync is unsupported");
+    }
+
+    default CompletableFuture<T> queryFirstAsync(Relationship... relationships) {
+        throw new UnsupportedOperationException("The queryFirstAsync is unsupported");
+    }
+
+    /**
+     * Queries the rows by primary values with the filter of query, the values are bound
+     * into <code>IN (...)</code> lists which are split under the limits of database and
+     * executed in one connection. The results are in the order of ids, the duplicated
+     * or null ids are ignored, and the ids without rows are absent. The numeric ids are
+     * compared by value, so an <code>Integer</code> id matches a <code>Long</code> column.
+     *
+     * @throws IllegalStateException if the offset, limit or orderBy of query is set, since
+     *                               they cannot be applied across the chunks of ids
+     */
+    default List<T> findByIds(Collection<?> ids, Relationship... relationships) throws SQLException {
+        throw new UnsupportedOperationException("The findByIds is unsupported");
+    }
+
+    /**
+     * Executes the query as a cursor, the rows will be fetched and hydrated one by one,
+     * and the cursor must be closed after use.
+     *
+     * <p>In a transaction the cursor is opened on the connection of transaction. On MySQL
+     * and MariaDB the rows are streamed, and the driver rejects any other statement on the
+     * connection until the cursor is closed, including the flush of write-behind and the
+     * statements of forked tasks, so the cursor should be closed before the next operation
+     * of the transaction.</p>
+     */
+    default QueryCursor<T> iterator() throws SQLException {
+        throw new UnsupportedOperationException("The iterator is unsupported");
+    }
+
+    /**
+     * Returns the lazy stream of the query, which holds the connection until the
+     * stream is closed, so it should be used in try-with-resources.
+     */
+    default Stream<T> stream() throws SQLException {
+        QueryCursor<T> cursor = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex.getMessage(), ex);
+            }
+        });
+    }
+
+    /**
+     * Returns a publisher of the query, each subscriber executes the query on the
+     * executor of data source, and the rows are fetched and hydrated only as they are
+     * requested. The connection is released when the rows are exhausted, or the
+     * subscription is cancelled or failed.
+     */
+    default QueryPublisher<T> publish() {
+        throw new UnsupportedOperationException("The publish is unsupported");
+    }
+
+    default void forEach(Consumer<? super T> consumer) throws SQLException {
+        try (QueryCursor<T> cursor = iterator()) {
+            while (cursor.hasNext()) {
+                consumer.accept(cursor.next());
+            }
+        }
+    }
 }
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * A forward-only cursor over the rows of a query, the domain object is created
+ * when it is fetched, so the memory used is irrelevant to the count of rows. The
+ * cursor holds the database resources until it is closed or exhausted.
+ *
+ * <p>The <code>SQLException</code> occurred in iterating will be wrapped
+ * in <code>IllegalStateException</code>.</p>
+ *
+ * @param <T> the class of domain model
+ */
+public interface QueryCursor<T> extends Iterator<T>, AutoCloseable {
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+/**
+ * A publisher of the rows of query with back pressure, the rows are fetched from
+ * database only when they are requested by the subscriber. The interfaces have the
+ * same shape as <code>java.util.concurrent.Flow</code> and Reactive Streams, which
+ * are not available in Java 8, so they can be adapted to them by delegating the methods.
+ *
+ * @param <T> the class of domain model
+ * @see Query#publish()
+ */
+@FunctionalInterface
+public interface QueryPublisher<T> {
+
+    /**
+     * Starts a new query for the subscriber, and the rows are not fetched until
+     * <code>Subscription.request</code> is invoked.
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+
+    interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    interface Subscription {
+
+        /**
+         * Requests more rows, the <code>Long.MAX_VALUE</code> means unbounded.
+         */
+        void request(long n);
+
+        /**
+         * Stops the subscription and releases the connection of query.
+         */
+        void cancel();
+    }
+}
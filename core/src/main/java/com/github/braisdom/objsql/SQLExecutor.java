@@ -41,7 +41,50 @@ public interface SQLExecutor<T> {
         throw new UnsupportedOperationException("The insert is unsupported");
     }
 
+    /**
+     * Executes the insert statements in a JDBC batch, and writes the keys generated
+     * by database back into the domain objects in order. The keys are written only when
+     * the database returns one key for each domain object.
+     *
+     * @param domainObjects the domain objects inserted by all statements, in order
+     */
+    default int[] insert(Connection connection, String sql, TableRowAdapter tableRowAdapter,
+                         Object[][] params, Object[] domainObjects) throws SQLException {
+        return insert(connection, sql, tableRowAdapter, params);
+    }
+
+    /**
+     * Executes the query and returns a cursor over the result set, the connection will
+     * not be closed by the cursor.
+     *
+     * @param fetchSize the hint of fetch size, the non-positive value means the default
+     */
+    default QueryCursor<T> cursor(Connection connection, String sql, TableRowAdapter tableRowAdapter,
+                                  int fetchSize, Object... params) throws SQLException {
+        throw new UnsupportedOperationException("The cursor is unsupported");
+    }
+
     default int execute(Connection connection, String sql, Object... params) throws SQLException {
         throw new UnsupportedOperationException("The execute is unsupported");
     };
+
+    /**
+     * Executes the statement with each row of parameters in a JDBC batch.
+     */
+    default int[] executeBatch(Connection connection, String sql, Object[][] params) throws SQLException {
+        throw new UnsupportedOperationException("The executeBatch is unsupported");
+    }
+
+    /**
+     * Executes the statement in JDBC batches, a failed batch is bisected to isolate the
+     * failed rows, which are added to the dead letters, and the other rows are committed.
+     * The rows are executed in a transaction owned by the method if the connection is in
+     * auto-commit mode, otherwise savepoints are required.
+     *
+     * @return the results of rows, <code>Statement.EXECUTE_FAILED</code> for the failed rows
+     */
+    default int[] executeBatch(Connection connection, String sql, Object[][] params,
+                               List<DeadLetter<Object[]>> deadLetters) throws SQLException {
+        throw new UnsupportedOperationException("The executeBatch is unsupported");
+    }
 }
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the generated SQL for persistence statements. The statement
+ * is identified by the domain model, the database, the kind of statement and the
+ * effective column set, so the different column sets produced by <code>skipNullOnUpdate</code>
+ * are cached as different entries.
+ *
+ * <p>The cache is read without lock, each entry records the tick of its last access, and
+ * the least recently used entries are evicted in a batch by one thread when the cache
+ * grows beyond the maximal size.</p>
+ */
+final class StatementCache {
+
+    enum StatementKind {
+        INSERT, UPDATE, DELETE, DELETE_IN, UPSERT
+    }
+
+    private final int maxSize;
+    private final int evictedSize;
+    private final Map<StatementKey, CacheEntry> statements = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    StatementCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        this.evictedSize = Math.max(1, maxSize - maxSize / 10);
+    }
+
+    /**
+     * Returns the cached statement, the statement will be created by <code>sqlSupplier</code>
+     * at first time. A concurrent creation for the same key is harmless because the result
+     * is identical.
+     */
+    PreparedStatementSql get(StatementKey key, Supplier<PreparedStatementSql> sqlSupplier) {
+        CacheEntry entry = statements.get(key);
+        if (entry != null) {
+            entry.lastAccess = clock.incrementAndGet();
+            return entry.statementSql;
+        }
+
+        PreparedStatementSql statementSql = sqlSupplier.get();
+        statements.put(key, new CacheEntry(statementSql, clock.incrementAndGet()));
+        if (statements.size() > maxSize) {
+            evict();
+        }
+        return statementSql;
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    void clear() {
+        statements.clear();
+    }
+
+    /**
+     * Removes the least recently used entries until the size is under the nine tenths of
+     * maximal size, the other threads skip the eviction when it is in progress. The ticks
+     * are copied before sorting because the other threads keep updating them.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int removingCount = statements.size() - evictedSize;
+            if (removingCount <= 0) {
+                return;
+            }
+            List<AccessTick> accessTicks = new ArrayList<>(statements.size());
+            for (Map.Entry<StatementKey, CacheEntry> entry : statements.entrySet()) {
+                accessTicks.add(new AccessTick(entry.getKey(), entry.getValue()));
+            }
+            AccessTick[] sortedTicks = accessTicks.toArray(new AccessTick[0]);
+            Arrays.sort(sortedTicks, Comparator.comparingLong(accessTick -> accessTick.tick));
+            for (int i = 0; i < removingCount && i < sortedTicks.length; i++) {
+                statements.remove(sortedTicks[i].key, sortedTicks[i].entry);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final PreparedStatementSql statementSql;
+        private volatile long lastAccess;
+
+        CacheEntry(PreparedStatementSql statementSql, long lastAccess) {
+            this.statementSql = statementSql;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static final class AccessTick {
+        private final StatementKey key;
+        private final CacheEntry entry;
+        private final long tick;
+
+        AccessTick(StatementKey key, CacheEntry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.tick = entry.lastAccess;
+        }
+    }
+
+    static final class StatementKey {
+        private final Class domainModelClass;
+        private final String tableName;
+        private final String databaseName;
+        private final StatementKind statementKind;
+        private final String[] columnNames;
+        private final int rowCount;
+        private final int hashCode;
+
+        StatementKey(Class domainModelClass, String tableName, DatabaseDialect dialect,
+                     StatementKind statementKind, String[] columnNames) {
+            this(domainModelClass, tableName, dialect, statementKind, columnNames, 1);
+        }
+
+        StatementKey(Class domainModelClass, String tableName, DatabaseDialect dialect,
+                     StatementKind statementKind, String[] columnNames, int rowCount) {
+            this.domainModelClass = domainModelClass;
+            this.tableName = tableName;
+            this.databaseName = dialect.getDatabaseName();
+            this.statementKind = statementKind;
+            this.columnNames = columnNames;
+            this.rowCount = rowCount;
+            this.hashCode = Objects.hash(domainModelClass, tableName, databaseName, statementKind, rowCount)
+                    * 31 + Arrays.hashCode(columnNames);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatementKey)) {
+                return false;
+            }
+            StatementKey other = (StatementKey) o;
+            return hashCode == other.hashCode
+                    && domainModelClass == other.domainModelClass
+                    && statementKind == other.statementKind
+                    && rowCount == other.rowCount
+                    && Objects.equals(tableName, other.tableName)
+                    && Objects.equals(databaseName, other.databaseName)
+                    && Arrays.equals(columnNames, other.columnNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The generated SQL and the field names whose values are bound to the
+     * placeholders, in order.
+     */
+    static final class PreparedStatementSql {
+        private final String sql;
+        private final String[] fieldNames;
+
+        PreparedStatementSql(String sql, String[] fieldNames) {
+            this.sql = sql;
+            this.fieldNames = fieldNames;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        String[] getFieldNames() {
+            return fieldNames;
+        }
+    }
+}
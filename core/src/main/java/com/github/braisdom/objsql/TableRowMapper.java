@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The row mapper is generated by <code>DomainModelCodeGenerator</code> for each domain model,
+ * it reads the column by index with typed getters of <code>ResultSet</code> and invokes
+ * the setter of domain model directly, without reflection.
+ *
+ * @see Tables#getRowMapper(Class)
+ */
+public interface TableRowMapper {
+
+    /**
+     * Returns the names of fields which can be mapped, the index of field name
+     * is the <code>fieldIndex</code> of {@link #mapColumn(Object, int, ResultSet, int)}.
+     */
+    String[] getFieldNames();
+
+    void mapColumn(Object bean, int fieldIndex, ResultSet resultSet, int columnIndex) throws SQLException;
+}
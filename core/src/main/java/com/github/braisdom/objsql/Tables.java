@@ -19,6 +19,7 @@ package com.github.braisdom.objsql;
 import com.github.braisdom.objsql.annotations.Column;
 import com.github.braisdom.objsql.annotations.DomainModel;
 import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.reflection.ClassUtils;
 import com.github.braisdom.objsql.reflection.PropertyUtils;
 import com.github.braisdom.objsql.util.StringUtil;
 import com.github.braisdom.objsql.util.WordUtil;
@@ -29,6 +30,7 @@ import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility methods relates to the database table.
@@ -41,8 +43,18 @@ public final class Tables {
     public static final String DEFAULT_PRIMARY_KEY = "id";
     public static final String DEFAULT_KEY_SUFFIX = "id";
 
+    private static final String ROW_MAPPER_CLASS_SUFFIX = "$RowMapper";
+    private static final Map<Class, Optional<TableRowMapper>> rowMappers = new ConcurrentHashMap<>();
+    private static final Map<Class, TableMetadata> tableMetadataMap = new ConcurrentHashMap<>();
+
+    /**
+     * The validation of beans will be performed in parallel when the number of beans
+     * reaches the threshold, and it is disabled when the threshold is not positive.
+     */
+    private static volatile int parallelValidationThreshold = -1;
+
     private static Validator validator = bean -> {
-        javax.validation.Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        javax.validation.Validator validator = BeanValidatorHolder.VALIDATOR;
         Set<ConstraintViolation<Object>> rawViolations = validator.validate(bean);
 
         return rawViolations.stream().map(violation ->
@@ -53,39 +65,24 @@ public final class Tables {
 
     public static final String getTableName(Class baseClass) {
         Objects.requireNonNull(baseClass, "The baseClass cannot be null");
-        DomainModel domainModel = (DomainModel) baseClass.getAnnotation(DomainModel.class);
+        TableMetadata tableMetadata = getTableMetadata(baseClass);
 
-        Objects.requireNonNull(domainModel, "The baseClass must have the DomainModel annotation");
+        Objects.requireNonNull(tableMetadata.domainModel, "The baseClass must have the DomainModel annotation");
 
-        if (!StringUtil.isBlank(domainModel.tableName())) {
-            return domainModel.tableName();
-        } else {
-            return WordUtil.tableize(baseClass.getSimpleName());
-        }
+        return tableMetadata.tableName;
     }
 
     public static final String getDataSourceName(Class baseClass) {
         Objects.requireNonNull(baseClass, "The baseClass cannot be null");
-        DomainModel domainModel = (DomainModel) baseClass.getAnnotation(DomainModel.class);
+        TableMetadata tableMetadata = getTableMetadata(baseClass);
 
-        Objects.requireNonNull(domainModel, "The baseClass must have the DomainModel annotation");
+        Objects.requireNonNull(tableMetadata.domainModel, "The baseClass must have the DomainModel annotation");
 
-        if (!StringUtil.isBlank(domainModel.dataSource())) {
-            return domainModel.dataSource();
-        } else {
-            return ConnectionFactory.DEFAULT_DATA_SOURCE_NAME;
-        }
+        return tableMetadata.dataSourceName;
     }
 
     public static final PrimaryKey getPrimaryKey(Class tableClass) {
-        Field[] fields = tableClass.getDeclaredFields();
-        for (Field field : fields) {
-            PrimaryKey primaryKey = field.getDeclaredAnnotation(PrimaryKey.class);
-            if (primaryKey != null) {
-                return primaryKey;
-            }
-        }
-        return null;
+        return getTableMetadata(tableClass).primaryKey;
     }
 
     public static final boolean isPrimaryField(Field field) {
@@ -114,40 +111,51 @@ public final class Tables {
     }
 
     public static final Field getPrimaryField(Class tableClass) {
-        Field[] fields = tableClass.getDeclaredFields();
-
-        Field defaultField = null;
-        Field primaryField = null;
-
-        for (Field field : fields) {
-            PrimaryKey primaryKey = field.getDeclaredAnnotation(PrimaryKey.class);
-            if (primaryKey != null) {
-                primaryField = field;
-            }
+        return getTableMetadata(tableClass).primaryField;
+    }
 
-            if (DEFAULT_PRIMARY_KEY.equals(field.getName())) {
-                defaultField = field;
+    public static final String getColumnName(Class tableClass, String fieldName) {
+        String columnName = getTableMetadata(tableClass).columnNames.get(fieldName);
+        if (columnName == null) {
+            try {
+                tableClass.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException ex) {
+                throw new DomainModelException(ex.getMessage(), ex);
             }
         }
-
-        return primaryField == null ? defaultField : primaryField;
+        return columnName;
     }
 
-    public static final String getColumnName(Class tableClass, String fieldName) {
-        try {
-            Field field = tableClass.getDeclaredField(fieldName);
-            Column column = field.getDeclaredAnnotation(Column.class);
+    private static TableMetadata getTableMetadata(Class tableClass) {
+        TableMetadata tableMetadata = tableMetadataMap.get(tableClass);
+        if (tableMetadata == null) {
+            tableMetadata = tableMetadataMap.computeIfAbsent(tableClass, TableMetadata::new);
+        }
+        return tableMetadata;
+    }
 
-            if (column != null) {
-                if (!WordUtil.isEmpty(column.name())) {
-                    return column.name();
+    /**
+     * Returns the row mapper generated at compiling for the domain model, or null
+     * if the domain model was not compiled with <code>DomainModelCodeGenerator</code>.
+     *
+     * @param tableClass the class of domain model
+     * @return the generated row mapper or null
+     */
+    public static final TableRowMapper getRowMapper(Class tableClass) {
+        Objects.requireNonNull(tableClass, "The tableClass cannot be null");
+
+        return rowMappers.computeIfAbsent(tableClass, clazz -> {
+            try {
+                Class mapperClass = Class.forName(clazz.getName() + ROW_MAPPER_CLASS_SUFFIX,
+                        true, clazz.getClassLoader());
+                if (TableRowMapper.class.isAssignableFrom(mapperClass)) {
+                    return Optional.of((TableRowMapper) ClassUtils.createNewInstance(mapperClass));
                 }
+                return Optional.empty();
+            } catch (ClassNotFoundException ex) {
+                return Optional.empty();
             }
-
-            return WordUtil.underscore(field.getName());
-        } catch (NoSuchFieldException ex) {
-            throw new DomainModelException(ex.getMessage(), ex);
-        }
+        }).orElse(null);
     }
 
     public static Validator getValidator() {
@@ -164,8 +172,27 @@ public final class Tables {
         return violations;
     }
 
+    /**
+     * Set the threshold of parallel validation, the beans will be validated in
+     * common <code>ForkJoinPool</code> if the size of beans reaches the threshold,
+     * and the installed <code>Validator</code> must be thread-safe.
+     *
+     * @param parallelValidationThreshold the minimal size of beans validated in parallel,
+     *                                    a non-positive value disables it
+     */
+    public static final void setParallelValidationThreshold(int parallelValidationThreshold) {
+        Tables.parallelValidationThreshold = parallelValidationThreshold;
+    }
+
     public static final Validator.Violation[] validate(Object[] beans) {
         Validator validator = getValidator();
+        int threshold = parallelValidationThreshold;
+        if (threshold > 0 && beans.length >= threshold) {
+            return Arrays.stream(beans).parallel()
+                    .flatMap(bean -> Arrays.stream(validator.validate(bean)))
+                    .toArray(Validator.Violation[]::new);
+        }
+
         List<Validator.Violation> violationList = new ArrayList<>();
         for (Object bean : beans) {
             Validator.Violation[] violations = validator.validate(bean);
@@ -177,7 +204,7 @@ public final class Tables {
     }
 
     public static final <T> List<T> query(Class<T> domainModelClass, String sql, Object... params) throws SQLException {
-        return query(new BeanModelDescriptor<>(domainModelClass), sql, params);
+        return query(BeanModelDescriptor.of(domainModelClass), sql, params);
     }
 
     public static final <T> List<T> query(DomainModelDescriptor<T> domainModelDescriptor, String sql, Object... params) throws SQLException {
@@ -220,3 +247,70 @@ public final class Tables {
         return String.format("%s_%s", name, DEFAULT_KEY_SUFFIX);
     }
 }
+
+/**
+ * The annotations and declared fields of a table class, which are resolved
+ * once for the static helpers of <code>Tables</code>.
+ */
+final class TableMetadata {
+
+    final DomainModel domainModel;
+    final String tableName;
+    final String dataSourceName;
+    final PrimaryKey primaryKey;
+    final Field primaryField;
+    final Map<String, String> columnNames;
+
+    TableMetadata(Class<?> tableClass) {
+        this.domainModel = tableClass.getAnnotation(DomainModel.class);
+
+        if (domainModel == null) {
+            this.tableName = null;
+            this.dataSourceName = null;
+        } else {
+            this.tableName = StringUtil.isBlank(domainModel.tableName())
+                    ? WordUtil.tableize(tableClass.getSimpleName()) : domainModel.tableName();
+            this.dataSourceName = StringUtil.isBlank(domainModel.dataSource())
+                    ? ConnectionFactory.DEFAULT_DATA_SOURCE_NAME : domainModel.dataSource();
+        }
+
+        PrimaryKey primaryKey = null;
+        Field primaryField = null;
+        Field defaultField = null;
+        Map<String, String> columnNames = new HashMap<>();
+
+        for (Field field : tableClass.getDeclaredFields()) {
+            PrimaryKey fieldPrimaryKey = field.getDeclaredAnnotation(PrimaryKey.class);
+            if (fieldPrimaryKey != null) {
+                if (primaryKey == null) {
+                    primaryKey = fieldPrimaryKey;
+                }
+                primaryField = field;
+            }
+
+            if (Tables.DEFAULT_PRIMARY_KEY.equals(field.getName())) {
+                defaultField = field;
+            }
+
+            Column column = field.getDeclaredAnnotation(Column.class);
+            if (column != null && !WordUtil.isEmpty(column.name())) {
+                columnNames.put(field.getName(), column.name());
+            } else {
+                columnNames.put(field.getName(), WordUtil.underscore(field.getName()));
+            }
+        }
+
+        this.primaryKey = primaryKey;
+        this.primaryField = primaryField == null ? defaultField : primaryField;
+        this.columnNames = Collections.unmodifiableMap(columnNames);
+    }
+}
+
+/**
+ * The <code>ValidatorFactory</code> is expensive to build, and the validator is thread-safe,
+ * so it is built once at first validating.
+ */
+final class BeanValidatorHolder {
+
+    static final javax.validation.Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+}
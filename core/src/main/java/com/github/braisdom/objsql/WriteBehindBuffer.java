@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Queues the inserts, updates and deletes of a transaction, and flushes them in JDBC
+ * batches. The consecutive statements with the same SQL are executed in one batch, so
+ * the order of statements is kept and the constraints between rows are respected.
+ */
+final class WriteBehindBuffer {
+
+    private final String dataSourceName;
+    private final List<PendingStatement> statements = new ArrayList<>();
+    private final Set<String> tableNames = new HashSet<>();
+
+    WriteBehindBuffer(String dataSourceName) {
+        this.dataSourceName = dataSourceName;
+    }
+
+    String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * The inserts whose primary key is generated by database cannot be queued, since
+     * the key is unknown until the insert is executed.
+     */
+    void add(String tableName, String sql, Object[] params) {
+        statements.add(new PendingStatement(sql, params));
+        tableNames.add(tableName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns true if the statements queued touch any of the tables, or the tables is null.
+     */
+    boolean affects(String[] tableNames) {
+        if (tableNames == null) {
+            return !statements.isEmpty();
+        }
+        for (String tableName : tableNames) {
+            if (this.tableNames.contains(tableName.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void flush(Connection connection, SQLExecutor sqlExecutor) throws SQLException {
+        List<PendingStatement> flushingStatements = new ArrayList<>(statements);
+        statements.clear();
+        tableNames.clear();
+
+        int batchSize = Databases.getBatchSize();
+        int from = 0;
+        while (from < flushingStatements.size()) {
+            PendingStatement first = flushingStatements.get(from);
+            int to = from + 1;
+            while (to < flushingStatements.size() && to - from < batchSize
+                    && first.isBatchableWith(flushingStatements.get(to))) {
+                to++;
+            }
+
+            List<PendingStatement> batch = flushingStatements.subList(from, to);
+            Object[][] params = batch.stream().map(statement -> statement.params).toArray(Object[][]::new);
+            sqlExecutor.executeBatch(connection, first.sql, params);
+            from = to;
+        }
+    }
+
+    private static class PendingStatement {
+
+        private final String sql;
+        private final Object[] params;
+
+        PendingStatement(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = params;
+        }
+
+        boolean isBatchableWith(PendingStatement other) {
+            return sql.equals(other.sql);
+        }
+    }
+}
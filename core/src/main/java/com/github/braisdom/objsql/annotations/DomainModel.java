@@ -125,4 +125,24 @@ public @interface DomainModel {
      * @since 1.3.6
      */
     boolean autoGeneratedPrimaryKey() default false;
+
+    /**
+     * Tracks the changes of domain objects queried from database, only the changed
+     * columns will be updated. The domain model will implement the
+     * <code>DirtyTrackable</code>, which holds the field values at querying.
+     *
+     * @return
+     * @see com.github.braisdom.objsql.DirtyTrackable
+     */
+    boolean dirtyTracking() default false;
+
+    /**
+     * Collects the inserts, updates and deletes by id from many threads, which are out of
+     * transaction, and commits them together in one transaction of the data source. The
+     * caller waits until the shared commit finishes.
+     *
+     * @return
+     * @see com.github.braisdom.objsql.GroupCommitExecutor
+     */
+    boolean groupCommit() default false;
 }
@@ -36,4 +36,14 @@ public @interface Transactional {
      * @return
      */
     String dataSource() default ConnectionFactory.DEFAULT_DATA_SOURCE_NAME;
+
+    /**
+     * Queues the inserts, updates and deletes in the transaction and flushes them in
+     * JDBC batches before the queries reading the affected tables or the commit. The inserts
+     * whose primary key is generated by database are not queued, since the key is returned
+     * by the insert, they flush the statements queued and are executed at once.
+     *
+     * @see com.github.braisdom.objsql.Databases#beginWriteBehind(String)
+     */
+    boolean writeBehind() default false;
 }
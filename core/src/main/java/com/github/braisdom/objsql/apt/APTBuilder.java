@@ -71,6 +71,10 @@ public final class APTBuilder {
         return typeRef(className);
     }
 
+    public void implement(Class interfaceClass) {
+        classDecl.implementing = classDecl.implementing.append(typeRef(interfaceClass));
+    }
+
     public void inject(JCVariableDecl variableDecl) {
         classDecl.defs = classDecl.defs.append(variableDecl);
     }
@@ -21,13 +21,45 @@ import org.mangosdk.spi.ProviderFor;
 
 import javax.annotation.processing.Processor;
 import java.lang.annotation.Annotation;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @ProviderFor(Processor.class)
 public class DomainModelCodeGenerator extends DomainModelProcessor {
 
+    private static final Map<String, String> RESULT_SET_GETTERS = new HashMap<>();
+    private static final Map<String, TypeTag> WRAPPER_PRIMITIVES = new HashMap<>();
+
+    static {
+        WRAPPER_PRIMITIVES.put("Long", TypeTag.LONG);
+        WRAPPER_PRIMITIVES.put("Integer", TypeTag.INT);
+        WRAPPER_PRIMITIVES.put("Short", TypeTag.SHORT);
+        WRAPPER_PRIMITIVES.put("Byte", TypeTag.BYTE);
+        WRAPPER_PRIMITIVES.put("Float", TypeTag.FLOAT);
+        WRAPPER_PRIMITIVES.put("Double", TypeTag.DOUBLE);
+        WRAPPER_PRIMITIVES.put("Boolean", TypeTag.BOOLEAN);
+
+        RESULT_SET_GETTERS.put("String", "getString");
+        RESULT_SET_GETTERS.put("Long", "getLong");
+        RESULT_SET_GETTERS.put("Integer", "getInt");
+        RESULT_SET_GETTERS.put("Short", "getShort");
+        RESULT_SET_GETTERS.put("Byte", "getByte");
+        RESULT_SET_GETTERS.put("Float", "getFloat");
+        RESULT_SET_GETTERS.put("Double", "getDouble");
+        RESULT_SET_GETTERS.put("Boolean", "getBoolean");
+        RESULT_SET_GETTERS.put("long", "getLong");
+        RESULT_SET_GETTERS.put("int", "getInt");
+        RESULT_SET_GETTERS.put("short", "getShort");
+        RESULT_SET_GETTERS.put("byte", "getByte");
+        RESULT_SET_GETTERS.put("float", "getFloat");
+        RESULT_SET_GETTERS.put("double", "getDouble");
+        RESULT_SET_GETTERS.put("boolean", "getBoolean");
+    }
+
     @Override
     public void handle(AnnotationValues annotationValues, JCTree ast, APTBuilder aptBuilder) {
         handleSetterGetter(annotationValues, aptBuilder);
@@ -40,6 +72,7 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
         handleSave2Method(aptBuilder);
         handleCreateMethod(aptBuilder);
         handleCreate2Method(aptBuilder);
+        handleCreateAsyncMethod(aptBuilder);
         handleCreateArrayMethod(aptBuilder);
         handleCreateArray2Method(aptBuilder);
         handleUpdateMethod(annotationValues, aptBuilder);
@@ -50,6 +83,7 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
         handleQueryMethod(aptBuilder);
         handleQuery2Method(aptBuilder);
         handleQuery3Method(aptBuilder);
+        handleQueryAsyncMethod(aptBuilder);
         handleQueryFirstMethod(aptBuilder);
         handleQueryFirst2Method(aptBuilder);
         handleQueryAllMethod(aptBuilder);
@@ -59,7 +93,9 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
         handleNewInstanceFromMethod(aptBuilder);
         handleNewInstanceFrom1Method(aptBuilder);
         handleRawAttributesField(aptBuilder);
+        handleSnapshotField(annotationValues, aptBuilder);
         handleInnerTableClass(aptBuilder);
+        handleRowMapperClass(aptBuilder);
     }
 
     @Override
@@ -206,10 +242,9 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
 
         statementBuilder.append(aptBuilder.newGenericsType(Persistence.class, aptBuilder.getClassName()),
                 "persistence", "persistenceFactory", "createPersistence",
-                treeMaker.NewClass(null, List.nil(),
-                        aptBuilder.typeRef(BeanModelDescriptor.class),
-                        List.of(aptBuilder.classRef(aptBuilder.getClassName()),
-                                aptBuilder.varRef("skipPrimaryKeyOnInserting")), null));
+                aptBuilder.staticMethodCall(BeanModelDescriptor.class, "of",
+                        aptBuilder.classRef(aptBuilder.getClassName()),
+                        aptBuilder.varRef("skipPrimaryKeyOnInserting")));
 
         methodBuilder.setReturnStatement("persistence", "save",
                 aptBuilder.varRef("this"), aptBuilder.varRef("skipValidation"));
@@ -233,10 +268,9 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
 
         statementBuilder.append(aptBuilder.newGenericsType(Persistence.class, aptBuilder.getClassName()),
                 "persistence", "persistenceFactory", "createPersistence",
-                treeMaker.NewClass(null, List.nil(),
-                        aptBuilder.typeRef(BeanModelDescriptor.class),
-                        List.of(aptBuilder.classRef(aptBuilder.getClassName()),
-                                aptBuilder.varRef("skipPrimaryKeyOnInserting")), null));
+                aptBuilder.staticMethodCall(BeanModelDescriptor.class, "of",
+                        aptBuilder.classRef(aptBuilder.getClassName()),
+                        aptBuilder.varRef("skipPrimaryKeyOnInserting")));
 
         methodBuilder.setReturnStatement("persistence", "insert",
                 aptBuilder.varRef("dirtyObject"), aptBuilder.varRef("skipValidation"));
@@ -269,6 +303,31 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
                 .build("create", Flags.PUBLIC | Flags.STATIC | Flags.FINAL));
     }
 
+    private void handleCreateAsyncMethod(APTBuilder aptBuilder) {
+        MethodBuilder methodBuilder = aptBuilder.createMethodBuilder();
+        TreeMaker treeMaker = aptBuilder.getTreeMaker();
+        StatementBuilder statementBuilder = aptBuilder.createStatementBuilder();
+
+        statementBuilder.append(aptBuilder.typeRef(PersistenceFactory.class),
+                "persistenceFactory", Databases.class,
+                "getPersistenceFactory", List.nil());
+
+        statementBuilder.append(aptBuilder.newGenericsType(Persistence.class, aptBuilder.getClassName()),
+                "persistence", "persistenceFactory", "createPersistence",
+                aptBuilder.staticMethodCall(BeanModelDescriptor.class, "of",
+                        aptBuilder.classRef(aptBuilder.getClassName()), treeMaker.Literal(false)));
+
+        methodBuilder.setReturnStatement("persistence", "insertAsync",
+                aptBuilder.varRef("dirtyObject"), aptBuilder.varRef("skipValidation"));
+
+        aptBuilder.inject(methodBuilder
+                .setReturnType(CompletableFuture.class, aptBuilder.typeRef(aptBuilder.getClassName()))
+                .addStatements(statementBuilder.build())
+                .addParameter("dirtyObject", aptBuilder.typeRef(aptBuilder.getClassName()))
+                .addParameter("skipValidation", treeMaker.TypeIdent(TypeTag.BOOLEAN))
+                .build("createAsync", Flags.PUBLIC | Flags.STATIC | Flags.FINAL));
+    }
+
     private void handleCreateArrayMethod(APTBuilder aptBuilder) {
         MethodBuilder methodBuilder = aptBuilder.createMethodBuilder();
         TreeMaker treeMaker = aptBuilder.getTreeMaker();
@@ -280,10 +339,9 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
 
         statementBuilder.append(aptBuilder.newGenericsType(Persistence.class, aptBuilder.getClassName()),
                 "persistence", "persistenceFactory", "createPersistence",
-                treeMaker.NewClass(null, List.nil(),
-                        aptBuilder.typeRef(BeanModelDescriptor.class),
-                        List.of(aptBuilder.classRef(aptBuilder.getClassName()),
-                                aptBuilder.varRef("skipPrimaryKeyOnInserting")), null));
+                aptBuilder.staticMethodCall(BeanModelDescriptor.class, "of",
+                        aptBuilder.classRef(aptBuilder.getClassName()),
+                        aptBuilder.varRef("skipPrimaryKeyOnInserting")));
 
         methodBuilder.setReturnStatement("persistence", "insert",
                 aptBuilder.varRef("dirtyObjects"), aptBuilder.varRef("skipValidation"));
@@ -465,6 +523,25 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
                 .build("queryBySql", Flags.PUBLIC | Flags.STATIC | Flags.FINAL));
     }
 
+    private void handleQueryAsyncMethod(APTBuilder aptBuilder) {
+        MethodBuilder methodBuilder = aptBuilder.createMethodBuilder();
+        StatementBuilder statementBuilder = aptBuilder.createStatementBuilder();
+
+        statementBuilder.append(aptBuilder.newGenericsType(Query.class, aptBuilder.getClassName()), "query",
+                "createQuery");
+        statementBuilder.append("query", "where",
+                List.of(aptBuilder.varRef("predicate"), aptBuilder.varRef("params")));
+
+        methodBuilder.setReturnStatement("query", "executeAsync");
+        aptBuilder.inject(methodBuilder
+                .addStatements(statementBuilder.build())
+                .addParameter("predicate", aptBuilder.typeRef(String.class))
+                .addVarargsParameter("params", aptBuilder.typeRef(Object.class))
+                .setReturnType(aptBuilder.typeRef(CompletableFuture.class),
+                        aptBuilder.newGenericsType(java.util.List.class, aptBuilder.getClassName()))
+                .build("queryAsync", Flags.PUBLIC | Flags.STATIC | Flags.FINAL));
+    }
+
     private void handleQueryFirstMethod(APTBuilder aptBuilder) {
         MethodBuilder methodBuilder = aptBuilder.createMethodBuilder();
         StatementBuilder statementBuilder = aptBuilder.createStatementBuilder();
@@ -633,6 +710,37 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
                 .build("getRawAttributes", Flags.PUBLIC | Flags.FINAL));
     }
 
+    private void handleSnapshotField(AnnotationValues annotationValues, APTBuilder aptBuilder) {
+        DomainModel domainModel = annotationValues.getAnnotationValue(DomainModel.class);
+        if (!domainModel.dirtyTracking()) {
+            return;
+        }
+
+        TreeMaker treeMaker = aptBuilder.getTreeMaker();
+        JCExpression snapshotType = treeMaker.TypeApply(aptBuilder.typeRef(Map.class),
+                List.of(aptBuilder.typeRef(String.class), aptBuilder.typeRef(Object.class)));
+        JCModifiers modifiers = treeMaker.Modifiers(Flags.PRIVATE | Flags.TRANSIENT);
+        modifiers.annotations = modifiers.annotations.append(treeMaker.Annotation(aptBuilder.typeRef(Transient.class), List.nil()));
+
+        aptBuilder.implement(DirtyTrackable.class);
+        aptBuilder.inject(treeMaker.VarDef(modifiers, aptBuilder.toName("snapshot"), snapshotType, null));
+
+        MethodBuilder getSnapshotMethodBuilder = aptBuilder.createMethodBuilder();
+        aptBuilder.inject(getSnapshotMethodBuilder
+                .addStatement(treeMaker.Return(aptBuilder.varRef("snapshot")))
+                .setReturnType(aptBuilder.newGenericsType(Map.class, String.class, Object.class))
+                .build("getSnapshot", Flags.PUBLIC | Flags.FINAL));
+
+        MethodBuilder setSnapshotMethodBuilder = aptBuilder.createMethodBuilder();
+        JCExpression assignSnapshot = treeMaker.Assign(
+                treeMaker.Select(aptBuilder.varRef("this"), aptBuilder.toName("snapshot")),
+                aptBuilder.varRef("snapshot"));
+        aptBuilder.inject(setSnapshotMethodBuilder
+                .addStatement(treeMaker.Exec(assignSnapshot))
+                .addParameter("snapshot", aptBuilder.newGenericsType(Map.class, String.class, Object.class))
+                .build("setSnapshot", Flags.PUBLIC | Flags.FINAL));
+    }
+
     private void handleInnerTableClass(APTBuilder aptBuilder) {
         JCClassDecl classDecl = aptBuilder.classDef(Flags.PUBLIC | Flags.FINAL | Flags.STATIC,
                 "Table", AbstractTable.class);
@@ -664,4 +772,98 @@ public class DomainModelCodeGenerator extends DomainModelProcessor {
         aptBuilder.inject(asTableMethod.build("asTable", Flags.PUBLIC | Flags.STATIC | Flags.FINAL));
         aptBuilder.inject(classDecl);
     }
+
+    /**
+     * Generates the <code>RowMapper</code> class which implements <code>TableRowMapper</code>,
+     * only the fields with type of String, primitive and its wrapper can be mapped, others
+     * will be mapped with reflection at runtime.
+     */
+    private void handleRowMapperClass(APTBuilder aptBuilder) {
+        TreeMaker treeMaker = aptBuilder.getTreeMaker();
+        treeMaker.at(aptBuilder.get().pos);
+
+        JCClassDecl classDecl = treeMaker.ClassDef(treeMaker.Modifiers(Flags.PUBLIC | Flags.FINAL | Flags.STATIC),
+                aptBuilder.toName("RowMapper"), List.nil(), null,
+                List.of(aptBuilder.typeRef(TableRowMapper.class)), List.nil());
+
+        StatementBuilder constructorStatement = aptBuilder.createStatementBuilder();
+        constructorStatement.append("super");
+        classDecl.defs = classDecl.defs.append(aptBuilder.createConstructor(Flags.PUBLIC,
+                List.nil(), constructorStatement.build()));
+
+        java.util.List<JCExpression> fieldNames = new ArrayList<>();
+        StatementBuilder mapColumnStatement = aptBuilder.createStatementBuilder();
+        mapColumnStatement.append(aptBuilder.typeRef(aptBuilder.getClassName()), "domainObject",
+                treeMaker.TypeCast(aptBuilder.typeRef(aptBuilder.getClassName()), aptBuilder.varRef("bean")));
+
+        for (JCVariableDecl field : aptBuilder.getFields()) {
+            String getterName = field.vartype == null ? null : RESULT_SET_GETTERS.get(simpleTypeName(field.vartype));
+            if (aptBuilder.isStatic(field.mods) || isTransient(field) || getterName == null) {
+                continue;
+            }
+
+            List<JCStatement> mappingStatements = createColumnMapping(aptBuilder, field, getterName);
+            JCExpression condition = treeMaker.Binary(Tag.EQ, aptBuilder.varRef("fieldIndex"),
+                    treeMaker.Literal(fieldNames.size()));
+
+            mapColumnStatement.append(treeMaker.If(treeMaker.Parens(condition), treeMaker.Block(0,
+                    mappingStatements.append(treeMaker.Return(null))), null));
+            fieldNames.add(treeMaker.Literal(field.name.toString()));
+        }
+
+        MethodBuilder getFieldNamesMethod = aptBuilder.createMethodBuilder();
+        classDecl.defs = classDecl.defs.append(getFieldNamesMethod
+                .setReturnType(aptBuilder.newArrayType(String.class))
+                .setReturnStatement(treeMaker.NewArray(aptBuilder.typeRef(String.class), List.nil(),
+                        List.from(fieldNames)))
+                .build("getFieldNames", Flags.PUBLIC | Flags.FINAL));
+
+        MethodBuilder mapColumnMethod = aptBuilder.createMethodBuilder();
+        classDecl.defs = classDecl.defs.append(mapColumnMethod
+                .addStatements(mapColumnStatement.build())
+                .addParameter("bean", Object.class)
+                .addParameter("fieldIndex", treeMaker.TypeIdent(TypeTag.INT))
+                .addParameter("resultSet", ResultSet.class)
+                .addParameter("columnIndex", treeMaker.TypeIdent(TypeTag.INT))
+                .setThrowsClauses(SQLException.class)
+                .build("mapColumn", Flags.PUBLIC | Flags.FINAL));
+
+        aptBuilder.inject(classDecl);
+    }
+
+    private List<JCStatement> createColumnMapping(APTBuilder aptBuilder, JCVariableDecl field, String getterName) {
+        TreeMaker treeMaker = aptBuilder.getTreeMaker();
+        String typeName = simpleTypeName(field.vartype);
+        String setterName = Utils.camelize(String.format("%s_%s", "set", field.name.toString()), true);
+        JCExpression columnValue = aptBuilder.methodCall("resultSet", getterName, aptBuilder.varRef("columnIndex"));
+
+        if (field.vartype instanceof JCPrimitiveTypeTree || typeName.equals("String")) {
+            return List.of(treeMaker.Exec(aptBuilder.methodCall("domainObject", setterName, columnValue)));
+        }
+
+        // The wasNull must be invoked after the column read, and the wrapper field keeps null for SQL NULL
+        JCVariableDecl columnValueVar = treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER),
+                aptBuilder.toName("columnValue"), treeMaker.TypeIdent(WRAPPER_PRIMITIVES.get(typeName)), columnValue);
+        JCExpression nullableValue = treeMaker.Conditional(aptBuilder.methodCall("resultSet", "wasNull"),
+                treeMaker.Literal(TypeTag.BOT, null), treeMaker.Apply(List.nil(), treeMaker.Select(
+                        aptBuilder.typeRef(typeName), aptBuilder.toName("valueOf")),
+                        List.of(aptBuilder.varRef("columnValue"))));
+        return List.of(columnValueVar, treeMaker.Exec(aptBuilder.methodCall("domainObject", setterName, nullableValue)));
+    }
+
+    private String simpleTypeName(JCExpression vartype) {
+        String typeName = vartype.toString();
+        return typeName.startsWith("java.lang.") ? typeName.substring("java.lang.".length()) : typeName;
+    }
+
+    private boolean isTransient(JCVariableDecl field) {
+        for (JCAnnotation annotation : field.mods.annotations) {
+            String annotationName = annotation.annotationType.toString();
+            if (annotationName.equals(Transient.class.getSimpleName())
+                    || annotationName.equals(Transient.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -53,7 +53,8 @@ public class TransactionalCodeGenerator extends DomainModelProcessor {
     private List<JCTree.JCStatement> createBody(AnnotationValues annotationValues, JCTree.JCMethodDecl methodDecl, APTBuilder aptBuilder) {
         TreeMaker treeMaker = aptBuilder.getTreeMaker();
         List<JCTree.JCExpression> exceptions = methodDecl.getThrows();
-        String dataSourceName = annotationValues.getAnnotationValue(Transactional.class).dataSource();
+        Transactional transactional = annotationValues.getAnnotationValue(Transactional.class);
+        String dataSourceName = transactional.dataSource();
 
         ListBuffer<JCTree.JCCatch> catchStatement = new ListBuffer<>();
         StatementBuilder bodyStatement = aptBuilder.createStatementBuilder();
@@ -82,22 +83,37 @@ public class TransactionalCodeGenerator extends DomainModelProcessor {
         tryStatement.append(treeMaker.Exec(aptBuilder.staticMethodCall(Databases.class,
                 "setCurrentThreadConnection", aptBuilder.varRef("connection"))));
 
+        // Databases.beginWriteBehind(dataSourceName);
+        if(transactional.writeBehind()) {
+            tryStatement.append(treeMaker.Exec(aptBuilder.staticMethodCall(Databases.class,
+                    "beginWriteBehind", treeMaker.Literal(dataSourceName))));
+        }
+
         if(methodDecl.restype.type.getTag().equals(TypeTag.VOID)) {
             tryStatement.append(treeMaker.Exec(originalMethodInvocation));
+            appendAwaitChildTasks(tryStatement, aptBuilder);
+            appendFlushWriteBehind(transactional, tryStatement, aptBuilder);
             tryStatement.append(treeMaker.Exec(treeMaker.Apply(List.nil(),
                     treeMaker.Select(aptBuilder.varRef("connection"), aptBuilder.toName("commit")),
                     List.nil())));
+            appendRunAfterCommitActions(tryStatement, aptBuilder);
         } else {
             tryStatement.append(methodDecl.restype, "res", originalMethodInvocation);
+            appendAwaitChildTasks(tryStatement, aptBuilder);
+            appendFlushWriteBehind(transactional, tryStatement, aptBuilder);
             tryStatement.append(treeMaker.Exec(treeMaker.Apply(List.nil(),
                     treeMaker.Select(aptBuilder.varRef("connection"), aptBuilder.toName("commit")),
                     List.nil())));
+            appendRunAfterCommitActions(tryStatement, aptBuilder);
             tryStatement.append(treeMaker.Return(aptBuilder.varRef("res")));
         }
 
         for(JCTree.JCExpression exception : exceptions) {
             ListBuffer catchBodyStatement = new ListBuffer();
 
+            // Databases.cancelChildTasks();
+            catchBodyStatement.append(createCancelChildTasks(aptBuilder));
+
             // DbUtils.rollbackAndCloseQuietly(connection);
             catchBodyStatement.append(treeMaker.Exec(
                     treeMaker.Apply(List.nil(), treeMaker.Select(aptBuilder.typeRef(DbUtils.class),
@@ -117,6 +133,8 @@ public class TransactionalCodeGenerator extends DomainModelProcessor {
 
         ListBuffer<JCTree.JCStatement> finallyStatements = new ListBuffer<>();
 
+        // The child tasks are cancelled for the unchecked exceptions, which are not caught
+        finallyStatements.add(createCancelChildTasks(aptBuilder));
         finallyStatements.add(finallyStatement);
         finallyStatements.add(closeQuietlyStatement);
 
@@ -127,4 +145,31 @@ public class TransactionalCodeGenerator extends DomainModelProcessor {
 
         return bodyStatement.build();
     }
+
+    // Databases.awaitChildTasks();
+    private void appendAwaitChildTasks(StatementBuilder tryStatement, APTBuilder aptBuilder) {
+        tryStatement.append(aptBuilder.getTreeMaker().Exec(aptBuilder.staticMethodCall(Databases.class,
+                "awaitChildTasks")));
+    }
+
+    // Databases.cancelChildTasks();
+    private JCTree.JCStatement createCancelChildTasks(APTBuilder aptBuilder) {
+        return aptBuilder.getTreeMaker().Exec(aptBuilder.staticMethodCall(Databases.class,
+                "cancelChildTasks"));
+    }
+
+    // Databases.runAfterCommitActions();
+    private void appendRunAfterCommitActions(StatementBuilder tryStatement, APTBuilder aptBuilder) {
+        tryStatement.append(aptBuilder.getTreeMaker().Exec(aptBuilder.staticMethodCall(Databases.class,
+                "runAfterCommitActions")));
+    }
+
+    // Databases.flushWriteBehind();
+    private void appendFlushWriteBehind(Transactional transactional, StatementBuilder tryStatement,
+                                        APTBuilder aptBuilder) {
+        if(transactional.writeBehind()) {
+            tryStatement.append(aptBuilder.getTreeMaker().Exec(aptBuilder.staticMethodCall(Databases.class,
+                    "flushWriteBehind")));
+        }
+    }
 }
@@ -626,7 +626,7 @@ public class QueryRunner extends AbstractQueryRunner {
      * @since 1.6
      */
     public int[] insertBatch(String sql, Object[][] params) throws SQLException {
-        return insertBatch(this.prepareConnection(), true, sql,  params);
+        return insertBatch(this.prepareConnection(), true, sql, null, params);
     }
 
     /**
@@ -640,7 +640,22 @@ public class QueryRunner extends AbstractQueryRunner {
      * @since 1.6
      */
     public int[] insertBatch(Connection conn, String sql, Object[][] params) throws SQLException {
-        return insertBatch(conn, false, sql, params);
+        return insertBatch(conn, false, sql, null, params);
+    }
+
+    /**
+     * Executes the given batch of INSERT SQL statements, and the auto-generated keys
+     * of all statements are handed to the <code>keysHandler</code>.
+     * @param conn The connection to use to run the query.
+     * @param sql The SQL to execute.
+     * @param keysHandler The handler used to process the <code>ResultSet</code> of auto-generated keys.
+     * @param params The query replacement parameters.
+     * @return The number of rows inserted by each statement.
+     * @throws SQLException if a database access error occurs
+     */
+    public int[] insertBatch(Connection conn, String sql, ResultSetHandler<?> keysHandler,
+                             Object[][] params) throws SQLException {
+        return insertBatch(conn, false, sql, keysHandler, params);
     }
 
     /**
@@ -648,14 +663,15 @@ public class QueryRunner extends AbstractQueryRunner {
      * @param conn The connection to use for the query call.
      * @param closeConn True if the connection should be closed, false otherwise.
      * @param sql The SQL statement to execute.
-     * the <code>ResultSet</code> of auto-generated keys.
+     * @param keysHandler The handler used to process the <code>ResultSet</code> of
+     * auto-generated keys, it will be ignored if null.
      * @param params The query replacement parameters.
      * @return The result generated by the handler.
      * @throws SQLException If there are database or parameter errors.
      * @since 1.6
      */
-    private int[] insertBatch(Connection conn, boolean closeConn, String sql, Object[][] params)
-            throws SQLException {
+    private int[] insertBatch(Connection conn, boolean closeConn, String sql,
+                              ResultSetHandler<?> keysHandler, Object[][] params) throws SQLException {
         if (conn == null) {
             throw new SQLException("Null connection");
         }
@@ -682,7 +698,16 @@ public class QueryRunner extends AbstractQueryRunner {
                 this.fillStatement(stmt, params[i]);
                 stmt.addBatch();
             }
-            return stmt.executeBatch();
+            int[] results = stmt.executeBatch();
+            if (keysHandler != null) {
+                ResultSet resultSet = stmt.getGeneratedKeys();
+                try {
+                    keysHandler.handle(resultSet);
+                } finally {
+                    close(resultSet);
+                }
+            }
+            return results;
         } catch (SQLException e) {
             this.rethrow(e, sql, (Object[])params);
         } finally {
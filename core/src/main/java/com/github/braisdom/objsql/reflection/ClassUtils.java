@@ -33,6 +33,13 @@ public final class ClassUtils {
 
 	private static final Map<Class<?>, Set<MethodSignature>> methodsSignaturesCache = new ConcurrentHashMap<>();
 
+	private static final ClassValue<Class<?>> realClasses = new ClassValue<Class<?>>() {
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			return resolveRealClass(type);
+		}
+	};
+
 	private ClassUtils() {
 	}
 
@@ -42,7 +49,12 @@ public final class ClassUtils {
 		return getRealClass(entityClass);
 	}
 
+	@SuppressWarnings("unchecked")
 	public static <T> Class<T> getRealClass(Class<T> clazz) {
+		return (Class<T>) realClasses.get(clazz);
+	}
+
+	private static <T> Class<T> resolveRealClass(Class<T> clazz) {
 		if (isProxyClass(clazz)) {
 			if (Proxy.isProxyClass(clazz)) {
 				Class<?>[] interfaces = clazz.getInterfaces();
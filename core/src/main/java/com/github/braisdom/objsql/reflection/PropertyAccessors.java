@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.braisdom.objsql.reflection;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Creates the getter and setter functions from the accessor methods of a property, they will be
+ * created by <code>LambdaMetafactory</code> firstly, so the JIT can inline them like a direct
+ * invocation, and falls back to <code>MethodHandle</code> if the bean class is not visible
+ * for the class loader of ObjectiveSql.
+ */
+final class PropertyAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_SAM_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_SAM_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private PropertyAccessors() {
+    }
+
+    /**
+     * Only the public method of public class can be accessed without <code>setAccessible</code>,
+     * the others should be invoked with reflection as usual.
+     */
+    static boolean isAccessible(Method method) {
+        return method != null && Modifier.isPublic(method.getModifiers())
+                && Modifier.isPublic(method.getDeclaringClass().getModifiers());
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> createGetter(Method readMethod) {
+        try {
+            MethodHandle methodHandle = LOOKUP.unreflect(readMethod);
+            if (isVisible(readMethod.getDeclaringClass())) {
+                MethodType instantiatedType = MethodType.methodType(
+                        methodHandle.type().wrap().returnType(), readMethod.getDeclaringClass());
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class), GETTER_SAM_TYPE, methodHandle, instantiatedType);
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            }
+
+            MethodHandle getter = methodHandle.asType(GETTER_SAM_TYPE);
+            return bean -> {
+                try {
+                    return getter.invokeExact(bean);
+                } catch (Throwable ex) {
+                    throw rethrow(ex);
+                }
+            };
+        } catch (Throwable ex) {
+            throw new ReflectionException("Failed to create getter for " + readMethod, ex);
+        }
+    }
+
+    /**
+     * The setter of primitive property widens the value as <code>Method.invoke</code>, such
+     * as an <code>Integer</code> returned by the driver for a <code>long</code> property.
+     */
+    static BiConsumer<Object, Object> createSetter(Method writeMethod) {
+        BiConsumer<Object, Object> setter = createExactSetter(writeMethod);
+        Class<?> parameterType = writeMethod.getParameterTypes()[0];
+        if (parameterType.isPrimitive()) {
+            Class<?> wrapperType = MethodType.methodType(parameterType).wrap().returnType();
+            return (bean, value) -> setter.accept(bean, value == null || value.getClass() == wrapperType
+                    ? value : widen(value, parameterType));
+        }
+        return setter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createExactSetter(Method writeMethod) {
+        try {
+            MethodHandle methodHandle = LOOKUP.unreflect(writeMethod);
+            if (isVisible(writeMethod.getDeclaringClass())) {
+                MethodType instantiatedType = MethodType.methodType(void.class,
+                        writeMethod.getDeclaringClass(), methodHandle.type().wrap().parameterType(1));
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class), SETTER_SAM_TYPE, methodHandle, instantiatedType);
+                return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+            }
+
+            MethodHandle setter = methodHandle.asType(methodHandle.type().changeReturnType(void.class))
+                    .asType(SETTER_SAM_TYPE);
+            return (bean, value) -> {
+                try {
+                    setter.invokeExact(bean, value);
+                } catch (Throwable ex) {
+                    throw rethrow(ex);
+                }
+            };
+        } catch (Throwable ex) {
+            throw new ReflectionException("Failed to create setter for " + writeMethod, ex);
+        }
+    }
+
+    /**
+     * Applies the widening primitive conversion (JLS 5.1.2) to the boxed value, the other
+     * values are returned as is and rejected by the setter.
+     */
+    static Object widen(Object value, Class<?> primitiveType) {
+        int sourceRank = getWideningRank(value.getClass());
+        int targetRank = getWideningRank(primitiveType);
+        if (sourceRank == 0 || targetRank <= sourceRank || primitiveType == char.class
+                || (value instanceof Character && primitiveType == short.class)) {
+            return value;
+        }
+
+        Number number = value instanceof Character ? Integer.valueOf((Character) value) : (Number) value;
+        if (primitiveType == short.class) {
+            return number.shortValue();
+        } else if (primitiveType == int.class) {
+            return number.intValue();
+        } else if (primitiveType == long.class) {
+            return number.longValue();
+        } else if (primitiveType == float.class) {
+            return number.floatValue();
+        }
+        return number.doubleValue();
+    }
+
+    private static int getWideningRank(Class<?> type) {
+        if (type == byte.class || type == Byte.class) {
+            return 1;
+        } else if (type == short.class || type == Short.class || type == char.class || type == Character.class) {
+            return 2;
+        } else if (type == int.class || type == Integer.class) {
+            return 3;
+        } else if (type == long.class || type == Long.class) {
+            return 4;
+        } else if (type == float.class || type == Float.class) {
+            return 5;
+        } else if (type == double.class || type == Double.class) {
+            return 6;
+        }
+        return 0;
+    }
+
+    /**
+     * The class generated by <code>LambdaMetafactory</code> is defined in the class loader of
+     * ObjectiveSql, it cannot link the bean class which is loaded by a child class loader.
+     */
+    private static boolean isVisible(Class<?> beanClass) {
+        try {
+            return Class.forName(beanClass.getName(), false,
+                    PropertyAccessors.class.getClassLoader()) == beanClass;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable ex) {
+        if (ex instanceof RuntimeException) {
+            return (RuntimeException) ex;
+        } else if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new ReflectionException(ex.getMessage(), ex);
+    }
+}
@@ -24,15 +24,26 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 class PropertyDescriptorCache<T> {
 
+    /**
+     * Marks the property without accessible method, so the method is not resolved again.
+     */
+    private static final Function<Object, Object> NO_GETTER = bean -> null;
+    private static final BiConsumer<Object, Object> NO_SETTER = (bean, value) -> {
+    };
+
     private final Class<T> originalClass;
     private final Map<String, PropertyDescriptor> propertyDescriptorsByName = new LinkedHashMap<>();
     private final Map<Field, PropertyDescriptor> propertyDescriptorsByField = new LinkedHashMap<>();
     private final Map<Method, PropertyDescriptor> propertyDescriptorsByMethod = new LinkedHashMap<>();
     private final Map<Class<? extends Annotation>, Map<PropertyDescriptor, Annotation>> propertyDescriptorsByAnnotation = new LinkedHashMap<>();
     private final Map<PropertyDescriptor, Object> defaultValues = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object, Object>> gettersByName = new ConcurrentHashMap<>();
+    private final Map<String, BiConsumer<Object, Object>> settersByName = new ConcurrentHashMap<>();
 
     private PropertyDescriptorCache(Class<T> originalClass) {
         this.originalClass = originalClass;
@@ -178,6 +189,37 @@ class PropertyDescriptorCache<T> {
         return propertyDescriptorsByName.get(propertyName);
     }
 
+    /**
+     * Returns the getter function of the property, or null if the read method cannot be accessed
+     * without <code>setAccessible</code>. The function is created only once for each property, and
+     * the read method is not resolved from the descriptor again, which is synchronized in JDK.
+     */
+    Function<Object, Object> getGetter(PropertyDescriptor propertyDescriptor) {
+        Function<Object, Object> getter = gettersByName.get(propertyDescriptor.getName());
+        if (getter == null) {
+            getter = gettersByName.computeIfAbsent(propertyDescriptor.getName(), name -> {
+                Method readMethod = propertyDescriptor.getReadMethod();
+                return PropertyAccessors.isAccessible(readMethod) ? PropertyAccessors.createGetter(readMethod) : NO_GETTER;
+            });
+        }
+        return getter == NO_GETTER ? null : getter;
+    }
+
+    /**
+     * Returns the setter function of the property, or null if the write method cannot be accessed
+     * without <code>setAccessible</code>.
+     */
+    BiConsumer<Object, Object> getSetter(PropertyDescriptor propertyDescriptor) {
+        BiConsumer<Object, Object> setter = settersByName.get(propertyDescriptor.getName());
+        if (setter == null) {
+            setter = settersByName.computeIfAbsent(propertyDescriptor.getName(), name -> {
+                Method writeMethod = propertyDescriptor.getWriteMethod();
+                return PropertyAccessors.isAccessible(writeMethod) ? PropertyAccessors.createSetter(writeMethod) : NO_SETTER;
+            });
+        }
+        return setter == NO_SETTER ? null : setter;
+    }
+
     Object getDefaultValue(PropertyDescriptor propertyDescriptor) {
         return defaultValues.computeIfAbsent(propertyDescriptor, this::determineDefaultValue);
     }
@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 
 public final class PropertyUtils {
@@ -64,7 +66,11 @@ public final class PropertyUtils {
 
     @SuppressWarnings("unchecked")
     static <T> PropertyDescriptorCache<T> getCache(Class<T> type) {
-        return (PropertyDescriptorCache<T>) cache.computeIfAbsent(type, PropertyDescriptorCache::compute);
+        PropertyDescriptorCache<?> propertyDescriptorCache = cache.get(type);
+        if (propertyDescriptorCache == null) {
+            propertyDescriptorCache = cache.computeIfAbsent(type, PropertyDescriptorCache::compute);
+        }
+        return (PropertyDescriptorCache<T>) propertyDescriptorCache;
     }
 
     public static <T> T copyNonDefaultValues(T source, T destination, Collection<PropertyDescriptor> excludedProperties) {
@@ -124,7 +130,10 @@ public final class PropertyUtils {
 
     public static void write(Object destination, PropertyDescriptor propertyDescriptor, Object value, boolean force) {
         try {
-            if (!isWritable(propertyDescriptor)) {
+            BiConsumer<Object, Object> setter = getCache(ClassUtils.getRealClass(destination)).getSetter(propertyDescriptor);
+            if (setter != null) {
+                setter.accept(destination, value);
+            } else if (!isWritable(propertyDescriptor)) {
                 throw new RelationalException(propertyDescriptor.getName() + " is not writable");
             } else {
                 Object[] args = new Object[]{value};
@@ -155,7 +164,10 @@ public final class PropertyUtils {
     public static <T> T read(Object source, PropertyDescriptor propertyDescriptor, boolean force) {
         final Object result;
         try {
-            if (!isReadable(propertyDescriptor)) {
+            Function<Object, Object> getter = getCache(ClassUtils.getRealClass(source)).getGetter(propertyDescriptor);
+            if (getter != null) {
+                result = getter.apply(source);
+            } else if (!isReadable(propertyDescriptor)) {
                 throw new IllegalArgumentException(String.format("%s must be readable", propertyDescriptor.getName()));
             } else {
                 Method readMethod = propertyDescriptor.getReadMethod();
@@ -17,11 +17,18 @@
 package com.github.braisdom.objsql.relation;
 
 import com.github.braisdom.objsql.*;
+import com.github.braisdom.objsql.jdbc.DbUtils;
 import com.github.braisdom.objsql.util.StringUtil;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class RelationshipNetwork implements RelationProcessor.Context {
@@ -31,12 +38,35 @@ public class RelationshipNetwork implements RelationProcessor.Context {
     private final Connection connection;
     private final DomainModelDescriptor domainModelDescriptor;
     private final Map<Class, List> relationObjectsMap;
+    private final String dataSourceName;
+    private final boolean parallel;
 
     public RelationshipNetwork(Connection connection, DomainModelDescriptor domainModelDescriptor) {
+        this(connection, domainModelDescriptor, null, false);
+    }
+
+    /**
+     * @param dataSourceName the data source of the sibling connections
+     * @param parallel       loads the relationships of base class concurrently, each of them
+     *                       with its chain of child relationships is queried on a separate
+     *                       connection. It takes effect only outside transaction, since the
+     *                       reads of a transaction must share its connection. A query with N
+     *                       relationships of base class holds up to N connections at once, the
+     *                       siblings without connection are loaded with the connection of query.
+     */
+    public RelationshipNetwork(Connection connection, DomainModelDescriptor domainModelDescriptor,
+                               String dataSourceName, boolean parallel) {
+        this(connection, domainModelDescriptor, dataSourceName, parallel, new ConcurrentHashMap<>());
+    }
+
+    protected RelationshipNetwork(Connection connection, DomainModelDescriptor domainModelDescriptor,
+                                  String dataSourceName, boolean parallel, Map<Class, List> relationObjectsMap) {
         this.connection = connection;
         this.domainModelDescriptor = domainModelDescriptor;
+        this.dataSourceName = dataSourceName;
+        this.parallel = parallel;
 
-        this.relationObjectsMap = new HashMap<>();
+        this.relationObjectsMap = relationObjectsMap;
     }
 
     @Override
@@ -45,7 +75,8 @@ public class RelationshipNetwork implements RelationProcessor.Context {
         List cachedObjects = relationObjectsMap.get(clazz);
         if (cachedObjects == null) {
             cachedObjects = queryObjects(clazz, associationColumn, associatedValues, condition);
-            relationObjectsMap.put(clazz, cachedObjects);
+            List existingObjects = relationObjectsMap.putIfAbsent(clazz, cachedObjects);
+            return existingObjects == null ? cachedObjects : existingObjects;
         }
         return cachedObjects;
     }
@@ -61,11 +92,99 @@ public class RelationshipNetwork implements RelationProcessor.Context {
         List<Relationship> baseRelationships = Arrays.stream(relationships)
                 .filter(r -> r.getBaseClass().equals(domainModelDescriptor.getDomainModelClass())).collect(Collectors.toList());
 
-        for (Relationship relationship : baseRelationships) {
-            setupAssociatedObjects(relationship, new ArrayList<>(Arrays.asList(relationships)));
+        if (parallel && baseRelationships.size() > 1 && Databases.getCurrentThreadConnection() == null) {
+            processInParallel(baseRelationships, relationships);
+        } else {
+            for (Relationship relationship : baseRelationships) {
+                setupAssociatedObjects(relationship, new ArrayList<>(Arrays.asList(relationships)));
+            }
         }
     }
 
+    /**
+     * The first relationship is loaded in current thread with the connection of query, and
+     * the others are loaded on the relation executor with their own connections. The query
+     * may run on the executor of data source itself, so waiting for the siblings on the same
+     * executor could starve it. A sibling still waiting for its connection when the first
+     * relationship is loaded is taken back and loaded with the connection of query, so the
+     * queries holding their connections do not wait for each other on an exhausted pool.
+     */
+    private void processInParallel(List<Relationship> baseRelationships,
+                                   Relationship[] relationships) throws SQLException {
+        ExecutorService executorService = Databases.getRelationExecutorService();
+        List<SiblingTask> siblingTasks = new ArrayList<>(baseRelationships.size() - 1);
+        for (Relationship relationship : baseRelationships.subList(1, baseRelationships.size())) {
+            SiblingTask siblingTask = new SiblingTask(relationship);
+            siblingTask.future = executorService.submit(() -> {
+                Connection siblingConnection = Databases.getConnectionFactory().getConnection(dataSourceName);
+                try {
+                    if (siblingTask.claimed.compareAndSet(false, true)) {
+                        createSibling(siblingConnection).setupAssociatedObjects(relationship,
+                                new ArrayList<>(Arrays.asList(relationships)));
+                    }
+                    return null;
+                } finally {
+                    DbUtils.close(siblingConnection);
+                }
+            });
+            siblingTasks.add(siblingTask);
+        }
+
+        SQLException exception = null;
+        try {
+            setupAssociatedObjects(baseRelationships.get(0), new ArrayList<>(Arrays.asList(relationships)));
+        } catch (SQLException ex) {
+            exception = ex;
+        }
+
+        boolean interrupted = false;
+        for (SiblingTask siblingTask : siblingTasks) {
+            if (siblingTask.claimed.compareAndSet(false, true)) {
+                // The sibling has no connection yet, or failed to get one
+                if (exception == null) {
+                    try {
+                        setupAssociatedObjects(siblingTask.relationship,
+                                new ArrayList<>(Arrays.asList(relationships)));
+                    } catch (SQLException ex) {
+                        exception = ex;
+                    }
+                }
+                continue;
+            }
+
+            // Waits for all siblings running, otherwise their connections may be leaked
+            while (true) {
+                try {
+                    siblingTask.future.get();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (exception == null) {
+                        exception = cause instanceof SQLException ? (SQLException) cause
+                                : new SQLException(cause.getMessage(), cause);
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Creates a network sharing the objects loaded, which queries on the given connection.
+     */
+    protected RelationshipNetwork createSibling(Connection connection) {
+        return new RelationshipNetwork(connection, domainModelDescriptor, dataSourceName,
+                false, relationObjectsMap);
+    }
+
     private void setupAssociatedObjects(Relationship relationship, List<Relationship> relationships) throws SQLException {
         RelationProcessor relationProcessor = relationship.createProcessor();
         relationProcessor.process(this, relationship);
@@ -79,23 +198,92 @@ public class RelationshipNetwork implements RelationProcessor.Context {
         }
     }
 
+    /**
+     * Queries the related objects with the associated values bound as parameters. The values
+     * are bound in an array by <code>= ANY(?)</code> if the dialect supports, otherwise they
+     * are split into <code>IN (...)</code> lists of the relation chunk size, and the last list
+     * is padded to a fixed size, so the SQL is reused across queries.
+     */
     protected List queryObjects(Class clazz, String associatedColumnName,
                                 Object[] associatedValues, String condition) throws SQLException {
-        String relationTableName = Tables.getTableName(clazz);
+        Object[] values = Arrays.stream(associatedValues).filter(Objects::nonNull).toArray();
+        if (values.length == 0) {
+            return new ArrayList();
+        }
 
+        String relationTableName = Tables.getTableName(clazz);
         SQLExecutor sqlExecutor = Databases.getSqlExecutor();
-        Quoter quoter = Databases.getQuoter();
+        DomainModelDescriptor relatedModelDescriptor = domainModelDescriptor.getRelatedModeDescriptor(clazz);
+        DatabaseDialect dialect = Databases.getDialect(getDataSourceName(), connection);
+
+        String arrayTypeName = dialect.supportsArrayParameters() ? getArrayElementTypeName(dialect, values) : null;
+        if (arrayTypeName != null) {
+            String sql = createRelationQuerySql(relationTableName,
+                    String.format("%s = ANY(?)", associatedColumnName), condition);
+            Array array = connection.createArrayOf(arrayTypeName, values);
+            try {
+                return sqlExecutor.query(connection, sql, relatedModelDescriptor, array);
+            } finally {
+                array.free();
+            }
+        }
+
+        int chunkSize = Math.min(Databases.getRelationChunkSize(), dialect.getInListChunkSize(0));
+        List relatedObjects = new ArrayList();
+        for (int start = 0; start < values.length; start += chunkSize) {
+            int end = Math.min(start + chunkSize, values.length);
+            Object[] chunkValues = Arrays.copyOfRange(values, start,
+                    start + dialect.getPaddedInListSize(end - start, chunkSize));
+            Arrays.fill(chunkValues, end - start, chunkValues.length, values[end - 1]);
 
-        String associatedValueString = String.join(",", quoter.quoteValues(associatedValues));
+            String sql = createRelationQuerySql(relationTableName,
+                    dialect.formatInPredicate(associatedColumnName, chunkValues.length), condition);
+            relatedObjects.addAll(sqlExecutor.query(connection, sql, relatedModelDescriptor, chunkValues));
+        }
+        return relatedObjects;
+    }
+
+    private String createRelationQuerySql(String relationTableName, String predicate, String condition) {
         String relationConditions = StringUtil.isBlank(condition)
-                ? String.format(" %s IN (%s) ", associatedColumnName, associatedValueString)
-                : String.format(" %s IN (%s) AND (%s)", associatedColumnName, associatedValueString, condition);
-        String relationTableQuerySql = String.format(SELECT_RELATION_STATEMENT, relationTableName, relationConditions);
+                ? String.format(" %s ", predicate)
+                : String.format(" %s AND (%s)", predicate, condition);
+        return String.format(SELECT_RELATION_STATEMENT, relationTableName, relationConditions);
+    }
 
-        return sqlExecutor.query(connection, relationTableQuerySql, domainModelDescriptor.getRelatedModeDescriptor(clazz));
+    /**
+     * Returns the element type of array if all values are of the same type, otherwise null.
+     */
+    private String getArrayElementTypeName(DatabaseDialect dialect, Object[] values) {
+        Class valueClass = values[0].getClass();
+        for (Object value : values) {
+            if (!valueClass.equals(value.getClass())) {
+                return null;
+            }
+        }
+        return dialect.getArrayElementTypeName(values[0]);
+    }
+
+    private String getDataSourceName() {
+        return dataSourceName == null
+                ? Tables.getDataSourceName(domainModelDescriptor.getDomainModelClass()) : dataSourceName;
     }
 
     protected void catchObjects(Class clazz, List objects) {
         this.relationObjectsMap.put(clazz, objects);
     }
+
+    /**
+     * A relationship loaded by a sibling, it is claimed by the sibling after getting its
+     * connection, or by the query if the sibling has not got one yet.
+     */
+    private static class SiblingTask {
+
+        private final Relationship relationship;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile Future<?> future;
+
+        SiblingTask(Relationship relationship) {
+            this.relationship = relationship;
+        }
+    }
 }
@@ -16,6 +16,7 @@
  */
 package com.github.braisdom.objsql.transition;
 
+import com.github.braisdom.objsql.DatabaseDialect;
 import com.github.braisdom.objsql.FieldValue;
 import com.github.braisdom.objsql.TableRowAdapter;
 
@@ -50,4 +51,28 @@ public interface ColumnTransition<T> {
                           String fieldName, Object columnValue) throws SQLException {
         return columnValue;
     }
+
+    /**
+     * Transforming the value into database compatible with the dialect resolved once
+     * for the data source, it delegates to the method without dialect by default.
+     *
+     * @throws SQLException
+     */
+    default Object sinking(DatabaseDialect dialect, DatabaseMetaData databaseMetaData,
+                           T object, TableRowAdapter tableRowDescriptor,
+                           String fieldName, FieldValue fieldValue) throws SQLException {
+        return sinking(databaseMetaData, object, tableRowDescriptor, fieldName, fieldValue);
+    }
+
+    /**
+     * Transforming the value into Java field compatible with the dialect resolved once
+     * for the data source, it delegates to the method without dialect by default.
+     *
+     * @throws SQLException
+     */
+    default Object rising(DatabaseDialect dialect, DatabaseMetaData databaseMetaData,
+                          ResultSetMetaData resultSetMetaData, T object, TableRowAdapter tableRowDescriptor,
+                          String fieldName, Object columnValue) throws SQLException {
+        return rising(databaseMetaData, resultSetMetaData, object, tableRowDescriptor, fieldName, columnValue);
+    }
 }
@@ -16,6 +16,8 @@
  */
 package com.github.braisdom.objsql.transition;
 
+import com.github.braisdom.objsql.DatabaseDialect;
+import com.github.braisdom.objsql.DatabaseType;
 import com.github.braisdom.objsql.FieldValue;
 import com.github.braisdom.objsql.TableRowAdapter;
 
@@ -33,13 +35,34 @@ public class SqlDateTimeTransition<T> implements ColumnTransition<T> {
     @Override
     public Object sinking(DatabaseMetaData databaseMetaData, T object,
                           TableRowAdapter tableRowDescriptor, String fieldName, FieldValue fieldValue) throws SQLException {
-        String databaseName = databaseMetaData.getDatabaseProductName();
+        return sinking(DatabaseType.from(databaseMetaData.getDatabaseProductName()), fieldValue);
+    }
+
+    @Override
+    public Object sinking(DatabaseDialect dialect, DatabaseMetaData databaseMetaData, T object,
+                          TableRowAdapter tableRowDescriptor, String fieldName, FieldValue fieldValue) {
+        return sinking(dialect.getDatabaseType(), fieldValue);
+    }
+
+    @Override
+    public Object rising(DatabaseMetaData databaseMetaData, ResultSetMetaData resultSetMetaData,
+                         T object, TableRowAdapter tableRowDescriptor, String columnName, Object columnValue) throws SQLException {
+        return rising(DatabaseType.from(databaseMetaData.getDatabaseProductName()), columnName, columnValue);
+    }
+
+    @Override
+    public Object rising(DatabaseDialect dialect, DatabaseMetaData databaseMetaData, ResultSetMetaData resultSetMetaData,
+                         T object, TableRowAdapter tableRowDescriptor, String columnName, Object columnValue) {
+        return rising(dialect.getDatabaseType(), columnName, columnValue);
+    }
+
+    private Object sinking(DatabaseType databaseType, FieldValue fieldValue) {
         if (fieldValue != null && fieldValue.getValue() != null) {
-            if (SQLite.nameEquals(databaseName)) {
+            if (databaseType == SQLite) {
                 return fieldValue;
-            } else if (Oracle.nameEquals(databaseName)) {
+            } else if (databaseType == Oracle) {
                 return fieldValue;
-            } else if (PostgreSQL.nameEquals(databaseName)) {
+            } else if (databaseType == PostgreSQL) {
                 if (fieldValue.getValue() instanceof Timestamp) {
                     return fieldValue.getValue();
                 } else if (fieldValue.getValue() instanceof Long) {
@@ -54,13 +77,10 @@ public class SqlDateTimeTransition<T> implements ColumnTransition<T> {
         return null;
     }
 
-    @Override
-    public Object rising(DatabaseMetaData databaseMetaData, ResultSetMetaData resultSetMetaData,
-                         T object, TableRowAdapter tableRowDescriptor, String columnName, Object columnValue) throws SQLException {
-        String databaseName = databaseMetaData.getDatabaseProductName();
+    private Object rising(DatabaseType databaseType, String columnName, Object columnValue) {
         try {
             if (columnValue != null) {
-                if (SQLite.nameEquals(databaseName)) {
+                if (databaseType == SQLite) {
                     return Timestamp.from(Instant.ofEpochMilli(Long.valueOf(String.valueOf(columnValue))));
                 } else {
                     return columnValue;
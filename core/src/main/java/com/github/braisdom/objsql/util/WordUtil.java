@@ -17,6 +17,8 @@
 package com.github.braisdom.objsql.util;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 
 /**
@@ -31,6 +33,16 @@ public class WordUtil {
     private static final Map<String, String> resolvedPlural2Singles = new HashMap<String, String>();
     private static final List<String> resolvedSingles = new ArrayList<String>();
 
+    /**
+     * The inflections of table and column names are computed repeatedly with the same words,
+     * so the results are memoized, and the caches stop growing at the limit.
+     */
+    private static final int MAX_INFLECTION_CACHE_SIZE = 4096;
+    private static final Map<String, String> camelizedWords = new ConcurrentHashMap<>();
+    private static final Map<String, String> lowerCamelizedWords = new ConcurrentHashMap<>();
+    private static final Map<String, String> underscoredWords = new ConcurrentHashMap<>();
+    private static final Map<String, String> tableizedWords = new ConcurrentHashMap<>();
+
     public static final Map<String, String> single2plurals = new HashMap<String, String>();
     public static final List<String> plurals = new ArrayList<String>();
     public static final Map<String, String> plural2singles = new HashMap<String, String>();
@@ -553,6 +565,7 @@ public class WordUtil {
     public static void addPlural(String single, String plural) {
         resolvedSingle2Plurals.put(single, plural);
         resolvedPlural2Singles.put(plural, single);
+        tableizedWords.clear();
     }
 
     /**
@@ -586,6 +599,12 @@ public class WordUtil {
             return word;
         }
 
+        return inflect(firstLetterInLowerCase ? lowerCamelizedWords : camelizedWords, word,
+                camelizingWord -> doCamelize(camelizingWord, firstLetterInLowerCase));
+    }
+
+    private static String doCamelize(String word, boolean firstLetterInLowerCase) {
+
         String result = "";
         if (word.indexOf('_') != -1) {
             StringBuilder sb = new StringBuilder();
@@ -641,6 +660,10 @@ public class WordUtil {
             return phase;
         }
 
+        return inflect(underscoredWords, phase, WordUtil::doUnderscore);
+    }
+
+    private static String doUnderscore(String phase) {
         phase = phase.replace('-', '_');
         StringBuilder sb = new StringBuilder();
         int total = phase.length();
@@ -761,7 +784,10 @@ public class WordUtil {
      * @return the table tableName of the java entityClass class tableName
      */
     public static String tableize(String modelClassName) {
-        return pluralize(underscore(modelClassName));
+        if (modelClassName == null) {
+            return null;
+        }
+        return inflect(tableizedWords, modelClassName, className -> pluralize(underscore(className)));
     }
 
     /**
@@ -781,6 +807,18 @@ public class WordUtil {
         return camelize(singularize(tableName));
     }
 
+    private static String inflect(Map<String, String> inflectedWords, String word,
+                                  Function<String, String> inflection) {
+        String inflectedWord = inflectedWords.get(word);
+        if (inflectedWord == null) {
+            inflectedWord = inflection.apply(word);
+            if (inflectedWord != null && inflectedWords.size() < MAX_INFLECTION_CACHE_SIZE) {
+                inflectedWords.put(word, inflectedWord);
+            }
+        }
+        return inflectedWord;
+    }
+
     public static boolean isEmpty(String str) {
         return str == null || str.length() == 0;
     }
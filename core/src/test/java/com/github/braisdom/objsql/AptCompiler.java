@@ -0,0 +1,62 @@
+package com.github.braisdom.objsql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles a class with the annotation processors of ObjectiveSql in tests, the class is
+ * loaded by a child class loader of tests, so it can use the classes of tests.
+ */
+final class AptCompiler {
+
+    private AptCompiler() {
+    }
+
+    @SafeVarargs
+    static Class<?> compile(String className, String source, Class<? extends Processor>... processors)
+            throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(compiler != null, "The java compiler is unavailable");
+
+        Path outputDir = Files.createTempDirectory("objsql-apt");
+        Path sourceFile = outputDir.resolve(className.substring(className.lastIndexOf('.') + 1) + ".java");
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+
+        String classPath = String.join(File.pathSeparator, System.getProperty("java.class.path"),
+                codeSourcePath(processors[0]), codeSourcePath(AptCompiler.class));
+        String[] processorNames = Arrays.stream(processors).map(Class::getName).toArray(String[]::new);
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> sources = fileManager.getJavaFileObjects(sourceFile.toFile());
+            List<String> options = new ArrayList<>(Arrays.asList("-d", outputDir.toString(),
+                    "-classpath", classPath, "-processorpath", classPath,
+                    "-processor", String.join(",", processorNames)));
+            StringWriter output = new StringWriter();
+            Assertions.assertTrue(compiler.getTask(output, fileManager, null, options, null, sources).call(),
+                    output::toString);
+        }
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{outputDir.toUri().toURL()},
+                AptCompiler.class.getClassLoader());
+        return Class.forName(className, true, classLoader);
+    }
+
+    private static String codeSourcePath(Class<?> clazz) throws Exception {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.braisdom.objsql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CursorPublisherTest {
+
+    @Test
+    public void testNonPositiveRequestFails() {
+        AtomicInteger openCount = new AtomicInteger();
+        CursorPublisher<Integer> publisher = new CursorPublisher<>(() -> {
+            openCount.incrementAndGet();
+            return new ListCursor(1, 2);
+        }, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assertions.assertTrue(subscriber.items.isEmpty());
+        Assertions.assertFalse(subscriber.completed);
+        Assertions.assertEquals(0, openCount.get());
+
+        // The subscription is terminated, the later requests are ignored
+        subscriber.subscription.request(1);
+        Assertions.assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void testCancelMidStreamClosesCursor() {
+        ListCursor cursor = new ListCursor(1, 2, 3, 4, 5);
+        CursorPublisher<Integer> publisher = new CursorPublisher<>(() -> cursor, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                if (items.size() == 2) {
+                    subscription.cancel();
+                }
+            }
+        };
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(5);
+
+        Assertions.assertEquals(Arrays.asList(1, 2), subscriber.items);
+        Assertions.assertTrue(cursor.closed);
+        Assertions.assertFalse(subscriber.completed);
+        Assertions.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testDemandArrivingDuringDrain() {
+        ListCursor cursor = new ListCursor(1, 2, 3, 4, 5);
+        QueuedExecutor executor = new QueuedExecutor();
+        CursorPublisher<Integer> publisher = new CursorPublisher<>(() -> cursor, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                if (items.size() == 1) {
+                    subscription.request(2);
+                }
+            }
+        };
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        Assertions.assertEquals(1, executor.tasks.size());
+        executor.runAll();
+
+        // The demand added while draining is emitted by the running drain
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+        Assertions.assertEquals(1, executor.executedCount);
+        Assertions.assertFalse(cursor.closed);
+
+        subscriber.subscription.request(10);
+        executor.runAll();
+
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.items);
+        Assertions.assertTrue(subscriber.completed);
+        Assertions.assertTrue(cursor.closed);
+    }
+
+    private static class RecordingSubscriber implements QueryPublisher.Subscriber<Integer> {
+
+        protected final List<Integer> items = new ArrayList<>();
+        protected QueryPublisher.Subscription subscription;
+        protected Throwable error;
+        protected boolean completed;
+
+        @Override
+        public void onSubscribe(QueryPublisher.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    private static class ListCursor implements QueryCursor<Integer> {
+
+        private final Iterator<Integer> iterator;
+        private boolean closed;
+
+        ListCursor(Integer... rows) {
+            this.iterator = Arrays.asList(rows).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static class QueuedExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+        private int executedCount;
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                executedCount++;
+                tasks.remove(0).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.braisdom.objsql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class DatabaseDialectTest {
+
+    private final DatabaseDialect dialect = new DatabaseDialect("MySQL", true);
+
+    @Test
+    public void testPaddedToPowerOfTwo() {
+        Assertions.assertEquals(1, dialect.getPaddedInListSize(1, 8));
+        Assertions.assertEquals(2, dialect.getPaddedInListSize(2, 8));
+        Assertions.assertEquals(4, dialect.getPaddedInListSize(3, 8));
+        Assertions.assertEquals(4, dialect.getPaddedInListSize(4, 8));
+        Assertions.assertEquals(8, dialect.getPaddedInListSize(5, 8));
+        Assertions.assertEquals(8, dialect.getPaddedInListSize(7, 8));
+    }
+
+    @Test
+    public void testPaddedSizeCappedByChunkSize() {
+        Assertions.assertEquals(8, dialect.getPaddedInListSize(8, 8));
+        Assertions.assertEquals(8, dialect.getPaddedInListSize(9, 8));
+        // The chunk size is not a power of two
+        Assertions.assertEquals(6, dialect.getPaddedInListSize(5, 6));
+        Assertions.assertEquals(4, dialect.getPaddedInListSize(4, 6));
+        Assertions.assertEquals(1, dialect.getPaddedInListSize(1, 1));
+    }
+
+    @Test
+    public void testPaddedSizeOfNoValues() {
+        Assertions.assertEquals(1, dialect.getPaddedInListSize(0, 8));
+    }
+
+    @Test
+    public void testInPredicate() {
+        Assertions.assertEquals("id IN (?)", dialect.formatInPredicate("id", 1));
+        Assertions.assertEquals("id IN (?, ?, ?)", dialect.formatInPredicate("id", 3));
+    }
+
+    @Test
+    public void testArrayElementTypeName() {
+        Assertions.assertFalse(dialect.supportsArrayParameters());
+        Assertions.assertTrue(new DatabaseDialect("PostgreSQL", true).supportsArrayParameters());
+
+        Assertions.assertEquals("bigint", dialect.getArrayElementTypeName(1L));
+        Assertions.assertEquals("integer", dialect.getArrayElementTypeName(1));
+        Assertions.assertEquals("smallint", dialect.getArrayElementTypeName((short) 1));
+        Assertions.assertEquals("uuid", dialect.getArrayElementTypeName(UUID.randomUUID()));
+        Assertions.assertEquals("numeric", dialect.getArrayElementTypeName(BigDecimal.ONE));
+        Assertions.assertNull(dialect.getArrayElementTypeName("foo"));
+    }
+}
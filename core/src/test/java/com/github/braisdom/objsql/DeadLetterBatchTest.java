@@ -0,0 +1,142 @@
+package com.github.braisdom.objsql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class DeadLetterBatchTest {
+
+    private static final String SQL = "INSERT INTO members (name) VALUES (?)";
+    private static final String BAD_ROW = "bad";
+
+    private int originalBatchSize;
+    private DefaultSQLExecutor sqlExecutor;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        originalBatchSize = Databases.getBatchSize();
+        Databases.setBatchSize(4);
+
+        sqlExecutor = spy(new DefaultSQLExecutor());
+        doAnswer(invocation -> {
+            Object[][] params = (Object[][]) invocation.getArguments()[2];
+            for (Object[] row : params) {
+                if (BAD_ROW.equals(row[0])) {
+                    throw new SQLException("Duplicate entry");
+                }
+            }
+            int[] results = new int[params.length];
+            Arrays.fill(results, 1);
+            return results;
+        }).when(sqlExecutor).executeBatch(any(Connection.class), anyString(), any(Object[][].class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Databases.setBatchSize(originalBatchSize);
+    }
+
+    @Test
+    public void testIsolateFailedRowsWithSavepoints() throws SQLException {
+        Connection connection = mockConnection(true, true);
+        Object[][] params = rows("a", BAD_ROW, "b", "c", "d", BAD_ROW);
+        List<DeadLetter<Object[]>> deadLetters = new ArrayList<>();
+
+        int[] results = sqlExecutor.executeBatch(connection, SQL, params, deadLetters);
+
+        Assertions.assertArrayEquals(new int[]{1, Statement.EXECUTE_FAILED, 1, 1, 1,
+                Statement.EXECUTE_FAILED}, results);
+        Assertions.assertEquals(2, deadLetters.size());
+        Assertions.assertEquals(1, deadLetters.get(0).getIndex());
+        Assertions.assertSame(params[1], deadLetters.get(0).getRow());
+        Assertions.assertEquals("Duplicate entry", deadLetters.get(0).getException().getMessage());
+        Assertions.assertEquals(5, deadLetters.get(1).getIndex());
+
+        verify(connection, atLeastOnce()).rollback(any(Savepoint.class));
+        verify(connection, never()).rollback();
+        verify(connection, times(1)).commit();
+        verify(connection).setAutoCommit(false);
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void testCommitEachBatchWithoutSavepointsInAutoCommit() throws SQLException {
+        Connection connection = mockConnection(true, false);
+        Object[][] params = rows("a", BAD_ROW, "b", "c");
+        List<DeadLetter<Object[]>> deadLetters = new ArrayList<>();
+
+        int[] results = sqlExecutor.executeBatch(connection, SQL, params, deadLetters);
+
+        Assertions.assertArrayEquals(new int[]{1, Statement.EXECUTE_FAILED, 1, 1}, results);
+        Assertions.assertEquals(1, deadLetters.size());
+        Assertions.assertEquals(1, deadLetters.get(0).getIndex());
+
+        // [0, 4) and [0, 2) and [1, 2) fail, [0, 1) and [2, 4) are committed
+        verify(connection, never()).setSavepoint();
+        verify(connection, times(3)).rollback();
+        verify(connection, times(2)).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void testRejectExternalTransactionWithoutSavepoints() throws SQLException {
+        Connection connection = mockConnection(false, false);
+        List<DeadLetter<Object[]>> deadLetters = new ArrayList<>();
+
+        Assertions.assertThrows(SQLException.class, () ->
+                sqlExecutor.executeBatch(connection, SQL, rows("a", BAD_ROW), deadLetters));
+
+        Assertions.assertTrue(deadLetters.isEmpty());
+        verify(sqlExecutor, never()).executeBatch(any(Connection.class), anyString(), any(Object[][].class));
+        verify(connection, never()).setAutoCommit(anyBoolean());
+        verify(connection, never()).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    public void testKeepExternalTransactionWithSavepoints() throws SQLException {
+        Connection connection = mockConnection(false, true);
+        List<DeadLetter<Object[]>> deadLetters = new ArrayList<>();
+
+        int[] results = sqlExecutor.executeBatch(connection, SQL, rows("a", BAD_ROW), deadLetters);
+
+        Assertions.assertArrayEquals(new int[]{1, Statement.EXECUTE_FAILED}, results);
+        Assertions.assertEquals(1, deadLetters.size());
+        verify(connection, atLeastOnce()).rollback(any(Savepoint.class));
+        verify(connection, never()).rollback();
+        verify(connection, never()).commit();
+        verify(connection, never()).setAutoCommit(anyBoolean());
+    }
+
+    private static Connection mockConnection(boolean autoCommit, boolean savepointSupported) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.supportsSavepoints()).thenReturn(savepointSupported);
+
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.getAutoCommit()).thenReturn(autoCommit);
+        when(connection.setSavepoint()).thenAnswer(invocation -> mock(Savepoint.class));
+        return connection;
+    }
+
+    private static Object[][] rows(String... names) {
+        Object[][] rows = new Object[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            rows[i] = new Object[]{names[i]};
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.braisdom.objsql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class DefaultBulkLoaderTest {
+
+    private static final String[] COLUMN_NAMES = {"id", "name"};
+
+    private int originalBatchSize;
+    private SQLExecutor sqlExecutor;
+    private final List<Object[][]> batches = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        originalBatchSize = Databases.getBatchSize();
+        Databases.setBatchSize(2);
+
+        sqlExecutor = mock(SQLExecutor.class);
+        when(sqlExecutor.executeBatch(any(Connection.class), anyString(), any(Object[][].class)))
+                .thenAnswer(invocation -> {
+                    Object[][] params = (Object[][]) invocation.getArguments()[2];
+                    batches.add(params);
+                    return new int[params.length];
+                });
+        Databases.installSqlExecutor(sqlExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Databases.setBatchSize(originalBatchSize);
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+    }
+
+    @Test
+    public void testCsvQuotingAndNull() throws IOException {
+        CsvLines lines = new CsvLines(rows(new Object[]{1, "a,b", "say \"hi\""}, new Object[]{null, ""}),
+                "NULL", false);
+
+        Assertions.assertEquals("\"1\",\"a,b\",\"say \"\"hi\"\"\"\n", lines.nextLine());
+        Assertions.assertEquals("NULL,\"\"\n", lines.nextLine());
+        Assertions.assertNull(lines.nextLine());
+        Assertions.assertEquals(2, lines.getRowCount());
+    }
+
+    @Test
+    public void testCsvBooleanAndDate() throws IOException {
+        java.util.Date date = new java.util.Date(1600000000123L);
+        Object[] row = {true, false, date, null};
+
+        Assertions.assertEquals("\"1\",\"0\",\"" + new Timestamp(date.getTime()) + "\",\n",
+                new CsvLines(rows(row), "", true).nextLine());
+        Assertions.assertEquals("\"true\",\"false\",\"" + new Timestamp(date.getTime()) + "\",\n",
+                new CsvLines(rows(row), "", false).nextLine());
+    }
+
+    @Test
+    public void testCsvBinaryRejected() {
+        CsvLines lines = new CsvLines(rows(new Object[]{new byte[]{1}}), "NULL", false);
+
+        IOException ex = Assertions.assertThrows(IOException.class, lines::nextLine);
+        SQLException sqlException = lines.toSQLException(ex);
+        Assertions.assertEquals("The binary value is unsupported in bulk loading", sqlException.getMessage());
+        Assertions.assertEquals(0, lines.getRowCount());
+    }
+
+    @Test
+    public void testInsertBatchesWithLastPartialBatch() throws SQLException {
+        long rowCount = new DefaultBulkLoader().load(mock(Connection.class), new DatabaseDialect("SQLite", true),
+                "members", COLUMN_NAMES, rows(new Object[]{1, "a"}, new Object[]{2, "b"},
+                        new Object[]{3, "c"}, new Object[]{4, "d"}, new Object[]{5, "e"}));
+
+        Assertions.assertEquals(5, rowCount);
+        Assertions.assertEquals(3, batches.size());
+        Assertions.assertEquals(2, batches.get(0).length);
+        Assertions.assertEquals(2, batches.get(1).length);
+        Assertions.assertEquals(1, batches.get(2).length);
+        Assertions.assertArrayEquals(new Object[]{5, "e"}, batches.get(2)[0]);
+        verify(sqlExecutor, times(3)).executeBatch(any(Connection.class),
+                eq("INSERT INTO members (id, name) VALUES (?, ?)"), any(Object[][].class));
+    }
+
+    @Test
+    public void testNonNativeDatabaseInsertedInBatches() throws SQLException {
+        long rowCount = new DefaultBulkLoader(DatabaseType.PostgreSQL).load(mock(Connection.class),
+                new DatabaseDialect("H2", true), "members", COLUMN_NAMES, rows(new Object[]{1, "a"}));
+
+        Assertions.assertEquals(1, rowCount);
+        Assertions.assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void testReadCsvWithEmbeddedH2() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulk_loader");
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE members (id INT, name VARCHAR(64))");
+            }
+
+            long rowCount = new DefaultBulkLoader().load(connection, DatabaseDialect.resolve(connection.getMetaData()),
+                    "members", COLUMN_NAMES, rows(new Object[]{1, "a,b"}, new Object[]{2, "say \"hi\""},
+                            new Object[]{3, null}, new Object[]{4, ""}));
+
+            Assertions.assertEquals(4, rowCount);
+            Assertions.assertTrue(batches.isEmpty());
+
+            List<String> names = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT name FROM members ORDER BY id")) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString(1));
+                }
+            }
+            Assertions.assertEquals(Arrays.asList("a,b", "say \"hi\"", null, ""), names);
+        }
+    }
+
+    @Test
+    public void testEmbeddedH2Url() {
+        Assertions.assertTrue(DefaultBulkLoader.isEmbeddedH2("jdbc:h2:mem:test"));
+        Assertions.assertTrue(DefaultBulkLoader.isEmbeddedH2("jdbc:h2:file:/data/test"));
+        Assertions.assertTrue(DefaultBulkLoader.isEmbeddedH2("jdbc:h2:~/test"));
+        Assertions.assertTrue(DefaultBulkLoader.isEmbeddedH2("jdbc:h2:./test"));
+        Assertions.assertTrue(DefaultBulkLoader.isEmbeddedH2("JDBC:H2:MEM:test"));
+        Assertions.assertFalse(DefaultBulkLoader.isEmbeddedH2("jdbc:h2:tcp://localhost/~/test"));
+        Assertions.assertFalse(DefaultBulkLoader.isEmbeddedH2("jdbc:h2:ssl://localhost/~/test"));
+        Assertions.assertFalse(DefaultBulkLoader.isEmbeddedH2("jdbc:mysql://localhost/test"));
+        Assertions.assertFalse(DefaultBulkLoader.isEmbeddedH2(null));
+    }
+
+    private static BulkLoader.RowSource rows(Object[]... rows) {
+        Iterator<Object[]> iterator = Arrays.asList(rows).iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+}
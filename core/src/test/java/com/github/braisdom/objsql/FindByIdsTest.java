@@ -0,0 +1,106 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class FindByIdsTest {
+
+    private int originalBatchSize;
+    private final List<Object[]> queriedParams = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        originalBatchSize = Databases.getBatchSize();
+        Databases.setBatchSize(2);
+
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        Databases.installConnectionFactory(dataSourceName -> connection);
+
+        // Only the members 1 and 3 exist, and they are returned in the reverse order
+        SQLExecutor sqlExecutor = mock(SQLExecutor.class);
+        when(sqlExecutor.query(any(Connection.class), anyString(), any(TableRowAdapter.class), anyVararg()))
+                .thenAnswer(invocation -> {
+                    Object[] arguments = invocation.getArguments();
+                    Object[] params = Arrays.copyOfRange(arguments, 3, arguments.length);
+                    queriedParams.add(params);
+                    List<Member> rows = new ArrayList<>();
+                    for (int i = params.length - 1; i >= 0; i--) {
+                        long id = ((Number) params[i]).longValue();
+                        if (id == 1 || id == 3) {
+                            rows.add(new Member(id));
+                        }
+                    }
+                    return rows;
+                });
+        Databases.installSqlExecutor(sqlExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Databases.setBatchSize(originalBatchSize);
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+    }
+
+    @Test
+    public void testInputOrderAndMissingIds() throws SQLException {
+        List<Member> members = new DefaultQuery<>(Member.class)
+                .findByIds(Arrays.asList(3, 2, 1L, null, 3L, new BigDecimal("1.00")));
+
+        Assertions.assertEquals(2, members.size());
+        Assertions.assertEquals(Long.valueOf(3), members.get(0).getId());
+        Assertions.assertEquals(Long.valueOf(1), members.get(1).getId());
+
+        // The duplicated ids are removed by value before chunking
+        Assertions.assertEquals(2, queriedParams.size());
+        Assertions.assertArrayEquals(new Object[]{3, 2}, queriedParams.get(0));
+        Assertions.assertArrayEquals(new Object[]{1L}, queriedParams.get(1));
+    }
+
+    @Test
+    public void testIdKey() {
+        Assertions.assertEquals(DefaultQuery.toIdKey(1), DefaultQuery.toIdKey(1L));
+        Assertions.assertEquals(DefaultQuery.toIdKey((short) 1), DefaultQuery.toIdKey(new BigDecimal("1.0")));
+        Assertions.assertEquals(DefaultQuery.toIdKey(1.5D), DefaultQuery.toIdKey(new BigDecimal("1.50")));
+        Assertions.assertNotEquals(DefaultQuery.toIdKey(1), DefaultQuery.toIdKey(1.5D));
+        Assertions.assertEquals("1", DefaultQuery.toIdKey("1"));
+    }
+
+    @DomainModel
+    public static class Member {
+        @PrimaryKey
+        private Long id;
+
+        public Member() {
+        }
+
+        public Member(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.apt.TransactionalCodeGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Mockito.*;
+
+public class ForkTest {
+
+    private static final String TASKS_SOURCE = "package tx;\n" +
+            "import com.github.braisdom.objsql.Databases;\n" +
+            "import com.github.braisdom.objsql.annotations.Transactional;\n" +
+            "import java.sql.SQLException;\n" +
+            "public class Tasks {\n" +
+            "    @Transactional\n" +
+            "    public static void run(Databases.AsyncExecutor<?> body) throws SQLException {\n" +
+            "        body.apply();\n" +
+            "    }\n" +
+            "}\n";
+
+    private static Method generatedRun;
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private Connection connection;
+
+    @BeforeAll
+    public static void compileTasks() throws Exception {
+        Class<?> tasksClass = AptCompiler.compile("tx.Tasks", TASKS_SOURCE, TransactionalCodeGenerator.class);
+        generatedRun = tasksClass.getMethod("run", Databases.AsyncExecutor.class);
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        doAnswer(invocation -> events.add("commit")).when(connection).commit();
+        doAnswer(invocation -> events.add("rollback")).when(connection).rollback();
+        doAnswer(invocation -> events.add("close")).when(connection).close();
+        Databases.installConnectionFactory(dataSourceName -> connection);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Databases.installConnectionBinder(new ThreadLocalConnectionBinder());
+    }
+
+    @Test
+    public void testFailedChildRollsBack() throws SQLException {
+        SQLException ex = Assertions.assertThrows(SQLException.class, () ->
+                Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+                    Databases.fork(() -> {
+                        throw new SQLException("Child failed");
+                    });
+                    return null;
+                }));
+
+        Assertions.assertEquals("Child failed", ex.getMessage());
+        Assertions.assertEquals(Arrays.asList("rollback", "close"), events);
+    }
+
+    @Test
+    public void testGeneratedFailedChildRollsBack() throws Exception {
+        InvocationTargetException ex = Assertions.assertThrows(InvocationTargetException.class, () ->
+                generatedRun.invoke(null, (Databases.AsyncExecutor<?>) () -> Databases.fork(() -> {
+                    throw new SQLException("Child failed");
+                })));
+
+        Assertions.assertEquals("Child failed", ex.getCause().getMessage());
+        Assertions.assertEquals(Arrays.asList("rollback", "close"), events);
+        Assertions.assertNull(Databases.getCurrentThreadConnection());
+    }
+
+    @Test
+    public void testRunningChildAwaitedBeforeRollback() {
+        Assertions.assertThrows(SQLException.class, () ->
+                Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+                    forkSlowChild();
+                    throw new SQLException("Parent failed");
+                }));
+
+        Assertions.assertEquals(Arrays.asList("child finished", "rollback", "close"), events);
+    }
+
+    @Test
+    public void testGeneratedRunningChildAwaitedBeforeClose() {
+        // The unchecked exception is not caught by the generated code, the finally block
+        // cancels and awaits the children before closing the connection
+        Assertions.assertThrows(InvocationTargetException.class, () ->
+                generatedRun.invoke(null, (Databases.AsyncExecutor<?>) () -> {
+                    forkSlowChild();
+                    throw new IllegalStateException("Parent failed");
+                }));
+
+        Assertions.assertEquals(Arrays.asList("child finished", "close"), events);
+    }
+
+    @Test
+    public void testCancelledBeforeStartNeverTouchesConnection() throws Exception {
+        ExecutorService originalExecutorService = Databases.getExecutorService();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        CountDownLatch blocker = new CountDownLatch(1);
+        executorService.execute(() -> awaitQuietly(blocker, 10000));
+        Databases.installExecutorService(executorService);
+
+        AtomicBoolean childStarted = new AtomicBoolean();
+        AtomicReference<CompletableFuture<?>> childFuture = new AtomicReference<>();
+        // Releases the executor after the child is cancelled
+        Thread releaser = new Thread(() -> {
+            while (childFuture.get() == null || !childFuture.get().isCancelled()) {
+                Thread.yield();
+            }
+            blocker.countDown();
+        });
+        releaser.start();
+
+        try {
+            Assertions.assertThrows(SQLException.class, () ->
+                    Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+                        childFuture.set(Databases.fork(() -> {
+                            childStarted.set(true);
+                            return Databases.getCurrentThreadConnection().createStatement();
+                        }));
+                        throw new SQLException("Parent failed");
+                    }));
+        } finally {
+            blocker.countDown();
+            releaser.join(10000);
+            Databases.installExecutorService(originalExecutorService);
+            executorService.shutdown();
+        }
+
+        Assertions.assertFalse(childStarted.get());
+        Assertions.assertTrue(childFuture.get().isCancelled());
+        verify(connection, never()).createStatement();
+        verify(connection).rollback();
+    }
+
+    @Test
+    public void testExecuteWithContextRestoresPrevious() throws SQLException {
+        Connection otherConnection = mock(Connection.class);
+
+        Databases.executeWithContext(new ConnectionContext(otherConnection), () -> {
+            Assertions.assertSame(otherConnection, Databases.getCurrentThreadConnection());
+            return null;
+        });
+        Assertions.assertNull(Databases.getCurrentThreadConnection());
+
+        Databases.setCurrentThreadConnection(connection);
+        try {
+            Assertions.assertThrows(SQLException.class, () ->
+                    Databases.executeWithContext(new ConnectionContext(otherConnection), () -> {
+                        throw new SQLException("Failed");
+                    }));
+            Assertions.assertSame(connection, Databases.getCurrentThreadConnection());
+        } finally {
+            Databases.clearCurrentThreadConnection();
+        }
+    }
+
+    @Test
+    public void testCustomConnectionBinder() throws Exception {
+        // A binder shared by all threads, as the context of a reactive framework
+        AtomicReference<ConnectionContext> boundContext = new AtomicReference<>();
+        Databases.installConnectionBinder(new ConnectionBinder() {
+            @Override
+            public ConnectionContext get() {
+                return boundContext.get();
+            }
+
+            @Override
+            public void bind(ConnectionContext connectionContext) {
+                boundContext.set(connectionContext);
+            }
+
+            @Override
+            public void unbind() {
+                boundContext.set(null);
+            }
+        });
+
+        AtomicReference<Connection> seenConnection = new AtomicReference<>();
+        Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+            Thread thread = new Thread(() -> seenConnection.set(Databases.getCurrentThreadConnection()));
+            thread.start();
+            thread.join(10000);
+            return null;
+        });
+
+        Assertions.assertSame(connection, seenConnection.get());
+        Assertions.assertNull(boundContext.get());
+        Assertions.assertEquals(Arrays.asList("commit", "close"), events);
+    }
+
+    private void forkSlowChild() {
+        CountDownLatch started = new CountDownLatch(1);
+        Databases.fork(() -> {
+            started.countDown();
+            awaitQuietly(new CountDownLatch(1), 200);
+            events.add("child finished");
+            return null;
+        });
+        awaitQuietly(started, 10000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch, long timeoutMillis) {
+        try {
+            latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
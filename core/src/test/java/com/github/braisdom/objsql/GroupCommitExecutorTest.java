@@ -0,0 +1,169 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.annotations.Transient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitExecutorTest {
+
+    private final DefaultPersistence<Member> persistence = new DefaultPersistence<>(Member.class);
+
+    @AfterEach
+    public void restoreSqlExecutor() {
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+    }
+
+    @Test
+    public void testUpdateAgainAfterGroupRolledBack() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        Databases.installConnectionFactory(dataSourceName -> connection);
+
+        List<String> statements = new ArrayList<>();
+        SQLExecutor sqlExecutor = mock(SQLExecutor.class);
+        when(sqlExecutor.execute(any(Connection.class), anyString(), anyVararg())).thenAnswer(invocation -> {
+            statements.add((String) invocation.getArguments()[1]);
+            return 1;
+        });
+        Databases.installSqlExecutor(sqlExecutor);
+
+        List<Object> snapshotNames = new ArrayList<>();
+        Member member = new Member(1L, "foo");
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("id", 1L);
+        snapshot.put("name", "foo");
+        member.setSnapshot(snapshot);
+        member.setName("bar");
+
+        GroupCommitExecutor executor = new GroupCommitExecutor(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME,
+                1000000, 2);
+        try {
+            CompletableFuture<Member> updated = executor.submit((groupConnection, groupSqlExecutor) -> {
+                Member result = persistence.update(1L, member, true);
+                snapshotNames.add(member.getSnapshot().get("name"));
+                return result;
+            });
+            CompletableFuture<Object> failed = executor.submit((groupConnection, groupSqlExecutor) -> {
+                throw new SQLException("Deadlock found");
+            });
+
+            Assertions.assertSame(member, updated.get(10, TimeUnit.SECONDS));
+            ExecutionException ex = Assertions.assertThrows(ExecutionException.class,
+                    () -> failed.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals("Deadlock found", ex.getCause().getMessage());
+        } finally {
+            executor.close();
+        }
+
+        // The update is executed again in the new transaction after the rollback, and
+        // the snapshot is not refreshed before the shared commit
+        Assertions.assertEquals(2, statements.size());
+        Assertions.assertEquals(Arrays.asList("foo", "foo"), snapshotNames);
+        Assertions.assertEquals(statements.get(0), statements.get(1));
+        Assertions.assertEquals("bar", member.getSnapshot().get("name"));
+        verify(connection, times(1)).rollback();
+        verify(connection, times(1)).commit();
+    }
+
+    @Test
+    public void testErrorFailsOnlyItsWrite() throws Exception {
+        Connection connection = mock(Connection.class);
+        AtomicInteger connectionCount = new AtomicInteger();
+        Databases.installConnectionFactory(dataSourceName -> {
+            if (connectionCount.incrementAndGet() == 2) {
+                throw new OutOfMemoryError("No connection");
+            }
+            return connection;
+        });
+
+        GroupCommitExecutor executor = new GroupCommitExecutor(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME,
+                1000000, 2);
+        try {
+            CompletableFuture<Object> failed = executor.submit((groupConnection, groupSqlExecutor) -> {
+                throw new AssertionError("Broken write");
+            });
+            CompletableFuture<String> committed = executor.submit((groupConnection, groupSqlExecutor) -> "foo");
+
+            ExecutionException ex = Assertions.assertThrows(ExecutionException.class,
+                    () -> failed.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(ex.getCause() instanceof AssertionError);
+            Assertions.assertEquals("foo", committed.get(10, TimeUnit.SECONDS));
+
+            // The error of the whole group fails the group only
+            executor.setWindow(0, 1);
+            CompletableFuture<String> groupFailed = executor.submit((groupConnection, groupSqlExecutor) -> "bar");
+            ex = Assertions.assertThrows(ExecutionException.class, () -> groupFailed.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(ex.getCause() instanceof OutOfMemoryError);
+
+            Assertions.assertEquals("baz", executor.submit((groupConnection, groupSqlExecutor) -> "baz")
+                    .get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.close();
+        }
+    }
+
+    @DomainModel
+    public static class Member implements DirtyTrackable {
+        @PrimaryKey
+        private Long id;
+        private String name;
+
+        @Transient
+        private transient Map<String, Object> snapshot;
+
+        public Member() {
+        }
+
+        public Member(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Map<String, Object> getSnapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public void setSnapshot(Map<String, Object> snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+public class InsertInParallelTest {
+
+    private final DefaultPersistence<Member> persistence = new DefaultPersistence<>(Member.class);
+    private final Map<Connection, String> connectionThreads = new ConcurrentHashMap<>();
+    private final AtomicInteger commitCount = new AtomicInteger();
+    private final AtomicInteger rollbackCount = new AtomicInteger();
+    private volatile int failedCommit;
+
+    @BeforeEach
+    public void setUp() {
+        Databases.installConnectionFactory(dataSourceName -> {
+            Connection connection = mockConnection();
+            connectionThreads.put(connection, Thread.currentThread().getName());
+            return connection;
+        });
+        Answer<Object> insertAnswer = invocation ->
+                invocation.getMethod().getReturnType() == int[].class ? new int[]{1} : null;
+        Databases.installSqlExecutor(mock(SQLExecutor.class, insertAnswer));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+    }
+
+    @Test
+    public void testFirstPartitionInCurrentThread() throws SQLException {
+        List<PartitionResult> results = persistence.insertInParallel(members(3), 3, false, true);
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertTrue(results.stream().allMatch(PartitionResult::isCommitted));
+        Assertions.assertEquals(3, commitCount.get());
+        Assertions.assertEquals(1, connectionThreads.values().stream()
+                .filter(Thread.currentThread().getName()::equals).count());
+        Assertions.assertEquals(2, connectionThreads.values().stream()
+                .filter(threadName -> threadName.startsWith("objsql-partition-")).count());
+    }
+
+    @Test
+    public void testAllOrNothingReportsCommittedPartitions() throws SQLException {
+        failedCommit = 2;
+
+        List<PartitionResult> results = persistence.insertInParallel(members(3), 3, true, true);
+
+        // The partitions are committed in order, the commit failure does not undo the first one
+        Assertions.assertTrue(results.get(0).isCommitted());
+        Assertions.assertNull(results.get(0).getException());
+        Assertions.assertFalse(results.get(1).isCommitted());
+        Assertions.assertEquals("Commit failed", results.get(1).getException().getMessage());
+        Assertions.assertFalse(results.get(2).isCommitted());
+        Assertions.assertTrue(results.get(2).isSucceeded());
+        Assertions.assertEquals(2, commitCount.get());
+        Assertions.assertEquals(2, rollbackCount.get());
+    }
+
+    private Connection mockConnection() {
+        try {
+            DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+            when(metaData.getDatabaseProductName()).thenReturn("SQLite");
+            Connection connection = mock(Connection.class);
+            when(connection.getMetaData()).thenReturn(metaData);
+            doAnswer(invocation -> {
+                if (commitCount.incrementAndGet() == failedCommit) {
+                    throw new SQLException("Commit failed");
+                }
+                return null;
+            }).when(connection).commit();
+            doAnswer(invocation -> rollbackCount.incrementAndGet()).when(connection).rollback();
+            return connection;
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Member[] members(int count) {
+        Member[] members = new Member[count];
+        for (int i = 0; i < count; i++) {
+            members[i] = new Member();
+            members[i].setName("member" + i);
+        }
+        return members;
+    }
+
+    @DomainModel
+    public static class Member {
+        @PrimaryKey
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
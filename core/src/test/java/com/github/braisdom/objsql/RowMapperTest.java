@@ -0,0 +1,193 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.apt.DomainModelCodeGenerator;
+import com.github.braisdom.objsql.transition.ColumnTransition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Compiles a domain model with <code>DomainModelCodeGenerator</code>, and compares the rows
+ * mapped by the generated <code>RowMapper</code> with the rows mapped by reflection.
+ */
+public class RowMapperTest {
+
+    private static final String PLAYER_SOURCE = "package mapper;\n" +
+            "import com.github.braisdom.objsql.annotations.*;\n" +
+            "@DomainModel\n" +
+            "public class Player {\n" +
+            "    private String name;\n" +
+            "    private int age;\n" +
+            "    private Integer score;\n" +
+            "    private boolean active;\n" +
+            "    private Double ratio;\n" +
+            "    @Column(transition = com.github.braisdom.objsql.RowMapperTest.TrimTransition.class)\n" +
+            "    private String nickname;\n" +
+            "}\n";
+    private static final String[] FIELD_NAMES = {"id", "name", "age", "score", "active", "ratio", "nickname"};
+
+    private static Class<?> playerClass;
+
+    @BeforeAll
+    public static void compilePlayer() throws Exception {
+        playerClass = AptCompiler.compile("mapper.Player", PLAYER_SOURCE, DomainModelCodeGenerator.class);
+        Assertions.assertNotNull(Tables.getRowMapper(playerClass));
+    }
+
+    @Test
+    public void testSameAsReflection() throws Exception {
+        ResultSetMetaData metaData = mockMetaData(new String[]{"id", "NAME", "age", "score", "active", "ratio", "nickname"},
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.SMALLINT, Types.BOOLEAN,
+                        Types.DOUBLE, Types.VARCHAR});
+        when(metaData.isNullable(3)).thenReturn(ResultSetMetaData.columnNoNulls);
+        when(metaData.isNullable(5)).thenReturn(ResultSetMetaData.columnNoNulls);
+        Object[] row = {7L, "foo", 30, 12, true, 0.5D, "  bar  "};
+
+        FakeResultSet generated = new FakeResultSet(row);
+        FakeResultSet reflective = new FakeResultSet(row);
+        assertSameBeans(createGeneratedPlan(metaData).createBean(generated.resultSet),
+                createReflectivePlan(metaData).createBean(reflective.resultSet));
+
+        // The upper case label and the numeric columns are read by the typed getters
+        Assertions.assertTrue(generated.typedReads.containsAll(Arrays.asList("getLong:1", "getString:2", "getInt:3",
+                "getInt:4", "getBoolean:5", "getDouble:6")), generated.typedReads::toString);
+        Assertions.assertTrue(reflective.typedReads.isEmpty());
+    }
+
+    @Test
+    public void testNullsSameAsReflection() throws Exception {
+        ResultSetMetaData metaData = mockMetaData(new String[]{"id", "name", "score", "ratio", "nickname"},
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.DOUBLE, Types.VARCHAR});
+        Object[] row = {1L, null, null, null, null};
+
+        Object generatedBean = createGeneratedPlan(metaData).createBean(new FakeResultSet(row).resultSet);
+        Object reflectiveBean = createReflectivePlan(metaData).createBean(new FakeResultSet(row).resultSet);
+
+        assertSameBeans(generatedBean, reflectiveBean);
+        Assertions.assertNull(readField(generatedBean, "score"));
+        Assertions.assertNull(readField(generatedBean, "ratio"));
+    }
+
+    @Test
+    public void testNullOfPrimitiveRejected() throws SQLException {
+        ResultSetMetaData metaData = mockMetaData(new String[]{"age"}, new int[]{Types.INTEGER});
+        FakeResultSet generated = new FakeResultSet(new Object[]{null});
+
+        // The typed getter would return 0 for NULL, so the nullable column is read by reflection
+        Assertions.assertThrows(RuntimeException.class,
+                () -> createGeneratedPlan(metaData).createBean(generated.resultSet));
+        Assertions.assertThrows(RuntimeException.class,
+                () -> createReflectivePlan(metaData).createBean(new FakeResultSet(new Object[]{null}).resultSet));
+        Assertions.assertTrue(generated.typedReads.isEmpty());
+    }
+
+    @Test
+    public void testWiderColumnNotNarrowed() throws SQLException {
+        ResultSetMetaData metaData = mockMetaData(new String[]{"score"}, new int[]{Types.BIGINT});
+        FakeResultSet resultSet = new FakeResultSet(new Object[]{5000000000L});
+
+        Assertions.assertThrows(RuntimeException.class,
+                () -> createGeneratedPlan(metaData).createBean(resultSet.resultSet));
+        Assertions.assertFalse(resultSet.typedReads.contains("getInt:1"));
+    }
+
+    private RowMappingPlan createGeneratedPlan(ResultSetMetaData metaData) throws SQLException {
+        return new RowMappingPlan(new BeanModelDescriptor(playerClass, false),
+                new DatabaseDialect("H2", true), mock(DatabaseMetaData.class), metaData);
+    }
+
+    private RowMappingPlan createReflectivePlan(ResultSetMetaData metaData) throws SQLException {
+        // The row mapper is used for BeanModelDescriptor only, a subclass keeps reflection
+        return new RowMappingPlan(new BeanModelDescriptor(playerClass, false) {
+        }, new DatabaseDialect("H2", true), mock(DatabaseMetaData.class), metaData);
+    }
+
+    private static void assertSameBeans(Object generatedBean, Object reflectiveBean) throws Exception {
+        for (String fieldName : FIELD_NAMES) {
+            Assertions.assertEquals(readField(reflectiveBean, fieldName), readField(generatedBean, fieldName),
+                    fieldName);
+        }
+    }
+
+    private static Object readField(Object bean, String fieldName) throws Exception {
+        Field field = bean.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(bean);
+    }
+
+    private static ResultSetMetaData mockMetaData(String[] labels, int[] types) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+            when(metaData.getColumnType(i + 1)).thenReturn(types[i]);
+            when(metaData.isNullable(i + 1)).thenReturn(ResultSetMetaData.columnNullable);
+        }
+        return metaData;
+    }
+
+    public static class TrimTransition implements ColumnTransition {
+
+        @Override
+        public Object rising(DatabaseMetaData databaseMetaData, ResultSetMetaData resultSetMetaData,
+                             Object object, TableRowAdapter tableRowDescriptor,
+                             String fieldName, Object columnValue) {
+            return columnValue == null ? null : columnValue.toString().trim();
+        }
+    }
+
+    /**
+     * A result set of one row, the typed getters convert the values as JDBC drivers do,
+     * and return the default value of primitive for SQL NULL.
+     */
+    private static class FakeResultSet {
+
+        private final List<String> typedReads = new ArrayList<>();
+        private final ResultSet resultSet;
+        private boolean lastNull;
+
+        FakeResultSet(Object[] row) {
+            resultSet = (ResultSet) Proxy.newProxyInstance(RowMapperTest.class.getClassLoader(),
+                    new Class[]{ResultSet.class}, (proxy, method, args) -> {
+                        String methodName = method.getName();
+                        if (methodName.equals("wasNull")) {
+                            return lastNull;
+                        }
+                        Object value = row[(Integer) args[0] - 1];
+                        lastNull = value == null;
+                        if (!methodName.equals("getObject")) {
+                            typedReads.add(methodName + ":" + args[0]);
+                        }
+                        switch (methodName) {
+                            case "getObject":
+                                return value;
+                            case "getString":
+                                return value == null ? null : value.toString();
+                            case "getLong":
+                                return value == null ? 0L : ((Number) value).longValue();
+                            case "getInt":
+                                return value == null ? 0 : ((Number) value).intValue();
+                            case "getDouble":
+                                return value == null ? 0D : ((Number) value).doubleValue();
+                            case "getBoolean":
+                                return value != null && (Boolean) value;
+                            default:
+                                throw new UnsupportedOperationException(methodName);
+                        }
+                    });
+        }
+    }
+}
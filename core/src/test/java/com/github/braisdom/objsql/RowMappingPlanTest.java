@@ -0,0 +1,75 @@
+package com.github.braisdom.objsql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class RowMappingPlanTest {
+
+    @Test
+    public void testCreateBeanByColumnIndex() throws Exception {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("user_name");
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getObject(1)).thenReturn(1L, 2L);
+        when(resultSet.getObject(2)).thenReturn("foo", "bar");
+
+        RowMappingPlan mappingPlan = new RowMappingPlan(new MapRowAdapter(),
+                new DatabaseDialect("H2", true), mock(DatabaseMetaData.class), metaData);
+
+        Map<String, Object> first = (Map<String, Object>) mappingPlan.createBean(resultSet);
+        Map<String, Object> second = (Map<String, Object>) mappingPlan.createBean(resultSet);
+
+        Assertions.assertEquals(1L, first.get("id"));
+        Assertions.assertEquals("foo", first.get("userName"));
+        Assertions.assertEquals(2L, second.get("id"));
+        Assertions.assertEquals("bar", second.get("userName"));
+
+        verify(metaData, times(1)).getColumnLabel(1);
+        verify(metaData, times(1)).getColumnLabel(2);
+        verify(resultSet, never()).getObject(anyString());
+    }
+
+    private static class MapRowAdapter implements TableRowAdapter<Map<String, Object>> {
+
+        @Override
+        public String getTableName() {
+            return "maps";
+        }
+
+        @Override
+        public Class getDomainModelClass() {
+            return Map.class;
+        }
+
+        @Override
+        public Map<String, Object> newInstance() {
+            return new HashMap<>();
+        }
+
+        @Override
+        public String getFieldName(String columnName) {
+            return "user_name".equals(columnName) ? "userName" : columnName;
+        }
+
+        @Override
+        public boolean isTransitable(String fieldName) {
+            return false;
+        }
+
+        @Override
+        public void setFieldValue(Map<String, Object> modelObject, String fieldName, Object fieldValue) {
+            modelObject.put(fieldName, fieldValue);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.StatementCache.PreparedStatementSql;
+import com.github.braisdom.objsql.StatementCache.StatementKey;
+import com.github.braisdom.objsql.StatementCache.StatementKind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StatementCacheTest {
+
+    private static final DatabaseDialect DIALECT = new DatabaseDialect("H2", true);
+
+    @Test
+    public void testCreateStatementOnce() {
+        StatementCache statementCache = new StatementCache(10);
+        AtomicInteger creations = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            statementCache.get(key("orders"), () -> {
+                creations.incrementAndGet();
+                return new PreparedStatementSql("INSERT", new String[0]);
+            });
+        }
+
+        Assertions.assertEquals(1, creations.get());
+        Assertions.assertEquals(1, statementCache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        StatementCache statementCache = new StatementCache(10);
+        statementCache.get(key("table0"), () -> new PreparedStatementSql("SQL0", new String[0]));
+        for (int i = 1; i < 20; i++) {
+            String tableName = "table" + i;
+            statementCache.get(key(tableName), () -> new PreparedStatementSql(tableName, new String[0]));
+            statementCache.get(key("table0"), () -> new PreparedStatementSql("RECREATED", new String[0]));
+        }
+
+        Assertions.assertTrue(statementCache.size() <= 10);
+        Assertions.assertEquals("SQL0", statementCache.get(key("table0"),
+                () -> new PreparedStatementSql("RECREATED", new String[0])).getSql());
+        Assertions.assertEquals("RECREATED", statementCache.get(key("table1"),
+                () -> new PreparedStatementSql("RECREATED", new String[0])).getSql());
+    }
+
+    @Test
+    public void testHitIsMoreRecentThanLastCreation() {
+        StatementCache statementCache = new StatementCache(2);
+        statementCache.get(key("table0"), () -> new PreparedStatementSql("SQL0", new String[0]));
+        statementCache.get(key("table1"), () -> new PreparedStatementSql("SQL1", new String[0]));
+        statementCache.get(key("table0"), () -> new PreparedStatementSql("RECREATED", new String[0]));
+        statementCache.get(key("table2"), () -> new PreparedStatementSql("SQL2", new String[0]));
+
+        Assertions.assertEquals(2, statementCache.size());
+        Assertions.assertEquals("SQL0", statementCache.get(key("table0"),
+                () -> new PreparedStatementSql("RECREATED", new String[0])).getSql());
+        Assertions.assertEquals("RECREATED", statementCache.get(key("table1"),
+                () -> new PreparedStatementSql("RECREATED", new String[0])).getSql());
+    }
+
+    private static StatementKey key(String tableName) {
+        return new StatementKey(Object.class, tableName, DIALECT, StatementKind.INSERT, new String[]{"id"});
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class UpsertSqlTest {
+
+    private static final String[] COLUMN_NAMES = {"id", "name"};
+    private static final String[] CONFLICT_COLUMN_NAMES = {"id"};
+    private static final String[] UPDATE_COLUMN_NAMES = {"name"};
+    private static final String[] NO_COLUMN_NAMES = {};
+
+    private final DefaultPersistence<Member> persistence = new DefaultPersistence<>(Member.class);
+
+    @AfterEach
+    public void restoreSqlExecutor() {
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+    }
+
+    @Test
+    public void testPostgreSQLUpsert() {
+        Assertions.assertEquals("INSERT INTO \"members\" (\"id\",\"name\") VALUES (?,?),(?,?) " +
+                        "ON CONFLICT (\"id\") DO UPDATE SET \"name\"=EXCLUDED.\"name\"",
+                formatUpsertSql("PostgreSQL", UPDATE_COLUMN_NAMES, 2));
+        Assertions.assertEquals("INSERT INTO \"members\" (\"id\",\"name\") VALUES (?,?) " +
+                        "ON CONFLICT (\"id\") DO NOTHING",
+                formatUpsertSql("PostgreSQL", NO_COLUMN_NAMES, 1));
+    }
+
+    @Test
+    public void testSQLiteUpsert() {
+        Assertions.assertEquals("INSERT INTO \"members\" (\"id\",\"name\") VALUES (?,?),(?,?) " +
+                        "ON CONFLICT (\"id\") DO UPDATE SET \"name\"=EXCLUDED.\"name\"",
+                formatUpsertSql("SQLite", UPDATE_COLUMN_NAMES, 2));
+    }
+
+    @Test
+    public void testMySQLUpsert() {
+        Assertions.assertEquals("INSERT INTO `members` (`id`,`name`) VALUES (?,?),(?,?) " +
+                        "ON DUPLICATE KEY UPDATE `name`=VALUES(`name`)",
+                formatUpsertSql("MySQL", UPDATE_COLUMN_NAMES, 2));
+        // Assigns the conflict column to itself for nothing updated
+        Assertions.assertEquals("INSERT INTO `members` (`id`,`name`) VALUES (?,?) " +
+                        "ON DUPLICATE KEY UPDATE `id`=VALUES(`id`)",
+                formatUpsertSql("MariaDB", NO_COLUMN_NAMES, 1));
+    }
+
+    @Test
+    public void testOracleUpsert() {
+        Assertions.assertEquals("MERGE INTO \"MEMBERS\" target USING (SELECT ? \"ID\",? \"NAME\" FROM DUAL) source " +
+                        "ON (target.\"ID\" = source.\"ID\") WHEN MATCHED THEN UPDATE SET target.\"NAME\" = source.\"NAME\" " +
+                        "WHEN NOT MATCHED THEN INSERT (\"ID\",\"NAME\") VALUES (source.\"ID\",source.\"NAME\")",
+                formatUpsertSql("Oracle", UPDATE_COLUMN_NAMES, 1));
+    }
+
+    @Test
+    public void testMsSqlServerUpsert() {
+        Assertions.assertEquals("MERGE INTO \"members\" target USING (VALUES (?,?),(?,?)) AS source (\"id\",\"name\") " +
+                        "ON (target.\"id\" = source.\"id\") WHEN NOT MATCHED THEN INSERT (\"id\",\"name\") " +
+                        "VALUES (source.\"id\",source.\"name\");",
+                formatUpsertSql("Microsoft SQL Server", NO_COLUMN_NAMES, 2));
+    }
+
+    @Test
+    public void testUnsupportedUpsert() {
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> formatUpsertSql("H2", UPDATE_COLUMN_NAMES, 1));
+    }
+
+    @Test
+    public void testSplitStatementAtRepeatedConflictKey() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(metaData.supportsGetGeneratedKeys()).thenReturn(true);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        Databases.installConnectionFactory(dataSourceName -> connection);
+
+        List<String> statements = new ArrayList<>();
+        List<List<Object>> statementValues = new ArrayList<>();
+        SQLExecutor sqlExecutor = mock(SQLExecutor.class);
+        when(sqlExecutor.executeBatch(any(Connection.class), anyString(), any(Object[][].class))).thenAnswer(invocation -> {
+            Object[][] params = (Object[][]) invocation.getArguments()[2];
+            statements.add((String) invocation.getArguments()[1]);
+            List<Object> values = new ArrayList<>();
+            for (Object value : params[0]) {
+                values.add(value instanceof FieldValue ? ((FieldValue) value).getValue() : value);
+            }
+            statementValues.add(values);
+            return new int[]{params[0].length / 2};
+        });
+        Databases.installSqlExecutor(sqlExecutor);
+
+        int[] results = persistence.upsert(new Member[]{new Member(1L, "a"),
+                new Member(2L, "b"), new Member(1L, "c")}, true);
+
+        Assertions.assertEquals(2, statements.size());
+        Assertions.assertTrue(statements.get(0).contains("VALUES (?,?),(?,?) ON CONFLICT"));
+        Assertions.assertTrue(statements.get(1).contains("VALUES (?,?) ON CONFLICT"));
+        Assertions.assertEquals(Arrays.asList(1L, "a", 2L, "b"), statementValues.get(0));
+        Assertions.assertEquals(Arrays.asList(1L, "c"), statementValues.get(1));
+        Assertions.assertArrayEquals(new int[]{1, 1, 1}, results);
+    }
+
+    private String formatUpsertSql(String databaseName, String[] updateColumnNames, int rowCount) {
+        DatabaseDialect dialect = new DatabaseDialect(databaseName, true);
+        return persistence.formatUpsertSql(dialect, dialect.quoteTableName("members"), COLUMN_NAMES,
+                CONFLICT_COLUMN_NAMES, updateColumnNames, rowCount);
+    }
+
+    @DomainModel
+    public static class Member {
+        @PrimaryKey
+        private Long id;
+        private String name;
+
+        public Member() {
+        }
+
+        public Member(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
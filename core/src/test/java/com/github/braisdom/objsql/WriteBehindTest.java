@@ -0,0 +1,212 @@
+package com.github.braisdom.objsql;
+
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.annotations.Relation;
+import com.github.braisdom.objsql.apt.TransactionalCodeGenerator;
+import com.github.braisdom.objsql.relation.Relationship;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class WriteBehindTest {
+
+    private static final String MEMBERS_SOURCE = "package tx;\n" +
+            "import com.github.braisdom.objsql.DefaultPersistence;\n" +
+            "import com.github.braisdom.objsql.WriteBehindTest.Member;\n" +
+            "import com.github.braisdom.objsql.annotations.Transactional;\n" +
+            "import java.sql.SQLException;\n" +
+            "public class Members {\n" +
+            "    @Transactional(writeBehind = true)\n" +
+            "    public static void insert(Member member) throws SQLException {\n" +
+            "        new DefaultPersistence<>(Member.class).insert(member, true);\n" +
+            "    }\n" +
+            "}\n";
+
+    private final DefaultPersistence<Member> persistence = new DefaultPersistence<>(Member.class);
+    private final List<String> events = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        doAnswer(invocation -> events.add("commit")).when(connection).commit();
+        Databases.installConnectionFactory(dataSourceName -> connection);
+
+        Answer<Object> recordingAnswer = invocation -> {
+            Object[] arguments = invocation.getArguments();
+            String methodName = invocation.getMethod().getName();
+            String statement = ((String) arguments[1]).split(" ")[0];
+            switch (methodName) {
+                case "executeBatch":
+                    Object[][] params = (Object[][]) arguments[2];
+                    events.add(String.format("%s %s %d", methodName, statement, params.length));
+                    return new int[params.length];
+                case "query":
+                    events.add(methodName);
+                    return new ArrayList<>();
+                case "insert":
+                    events.add(String.format("%s %s", methodName, statement));
+                    return new Member(9L, null);
+                default:
+                    events.add(String.format("%s %s", methodName, statement));
+                    return 1;
+            }
+        };
+        Databases.installSqlExecutor(mock(SQLExecutor.class, recordingAnswer));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+    }
+
+    @Test
+    public void testRunsOfSameSqlBatchedInOrder() throws SQLException {
+        Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+            persistence.insert(new Member(1L, "a"), true);
+            persistence.insert(new Member(2L, "b"), true);
+            persistence.update(1L, new Member(1L, "c"), true);
+            persistence.insert(new Member(3L, "d"), true);
+            Assertions.assertTrue(events.isEmpty());
+            return null;
+        }, true);
+
+        Assertions.assertEquals(Arrays.asList("executeBatch INSERT 2", "executeBatch UPDATE 1",
+                "executeBatch INSERT 1", "commit"), events);
+    }
+
+    @Test
+    public void testGeneratedKeyInsertFlushesFirst() throws SQLException {
+        DefaultPersistence<Member> generatedPersistence = new DefaultPersistence<>(
+                BeanModelDescriptor.of(Member.class, true));
+        Member member = new Member(null, "b");
+
+        Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+            persistence.insert(new Member(1L, "a"), true);
+            generatedPersistence.insert(member, true);
+            return null;
+        }, true);
+
+        Assertions.assertEquals(Arrays.asList("executeBatch INSERT 1", "insert INSERT", "commit"), events);
+        Assertions.assertEquals(Long.valueOf(9), member.getId());
+    }
+
+    @Test
+    public void testQueryFlushesReadTables() throws Exception {
+        Relationship relationship = new Relationship(Order.class, Order.class.getDeclaredField("members"),
+                Order.class.getDeclaredField("members").getAnnotation(Relation.class));
+
+        Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+            persistence.insert(new Member(1L, "a"), true);
+            new DefaultQuery<>(Order.class).execute();
+            Assertions.assertEquals(Arrays.asList("query"), events);
+
+            new DefaultQuery<>(Member.class).execute();
+            Assertions.assertEquals(Arrays.asList("query", "executeBatch INSERT 1", "query"), events);
+            events.clear();
+
+            // The tables of sub-queries and relationships are unknown, so everything is flushed
+            persistence.insert(new Member(2L, "b"), true);
+            new DefaultQuery<>(Order.class).where("member_id IN (SELECT id FROM members)").execute();
+            persistence.insert(new Member(3L, "c"), true);
+            new DefaultQuery<>(Order.class).execute(relationship);
+            Assertions.assertEquals(Arrays.asList("executeBatch INSERT 1", "query",
+                    "executeBatch INSERT 1", "query"), events);
+            events.clear();
+            return null;
+        }, true);
+
+        Assertions.assertEquals(Arrays.asList("commit"), events);
+    }
+
+    @Test
+    public void testDeleteByIdReturnsZero() throws SQLException {
+        Databases.executeTransactionally(ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, () -> {
+            Assertions.assertEquals(0, persistence.delete(1L));
+            Assertions.assertTrue(events.isEmpty());
+            return null;
+        }, true);
+
+        Assertions.assertEquals(Arrays.asList("executeBatch DELETE 1", "commit"), events);
+    }
+
+    @Test
+    public void testGeneratedTransactionalFlushesBeforeCommit() throws Exception {
+        Class<?> membersClass = AptCompiler.compile("tx.Members", MEMBERS_SOURCE, TransactionalCodeGenerator.class);
+
+        membersClass.getMethod("insert", Member.class).invoke(null, new Member(1L, "a"));
+
+        Assertions.assertEquals(Arrays.asList("executeBatch INSERT 1", "commit"), events);
+        Assertions.assertNull(Databases.getCurrentThreadConnection());
+    }
+
+    @DomainModel(tableName = "members")
+    public static class Member {
+        @PrimaryKey
+        private Long id;
+        private String name;
+
+        public Member() {
+        }
+
+        public Member(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @DomainModel(tableName = "orders")
+    public static class Order {
+        @PrimaryKey
+        private Long id;
+
+        @Relation
+        private List<Member> members;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public List<Member> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<Member> members) {
+            this.members = members;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.braisdom.objsql.reflection;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the property accessors cached in <code>PropertyDescriptorCache</code> with
+ * the <code>Method.invoke</code> which was used by <code>PropertyUtils</code> before.
+ * Run it with the main method after <code>mvn test-compile</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyUtilsBenchmark {
+
+    public static class Member {
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private Member member;
+    private Long id;
+    private Method readMethod;
+    private Method writeMethod;
+
+    @Setup
+    public void setup() {
+        member = new Member();
+        id = 1024L;
+        PropertyDescriptor propertyDescriptor = PropertyUtils.getPropertyDescriptorByName(Member.class, "id");
+        readMethod = propertyDescriptor.getReadMethod();
+        writeMethod = propertyDescriptor.getWriteMethod();
+    }
+
+    @Benchmark
+    public Object reflectiveRead() throws Exception {
+        return readMethod.invoke(member);
+    }
+
+    @Benchmark
+    public Object accessorRead() {
+        return PropertyUtils.read(member, "id");
+    }
+
+    @Benchmark
+    public Object reflectiveWrite() throws Exception {
+        return writeMethod.invoke(member, id);
+    }
+
+    @Benchmark
+    public Member accessorWrite() {
+        PropertyUtils.write(member, "id", id);
+        return member;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PropertyUtilsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
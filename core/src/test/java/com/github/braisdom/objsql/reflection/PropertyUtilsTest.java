@@ -0,0 +1,66 @@
+package com.github.braisdom.objsql.reflection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PropertyUtilsTest {
+
+    @Test
+    public void testWriteWidensPrimitiveValue() {
+        PrimitiveBean bean = new PrimitiveBean();
+
+        PropertyUtils.write(bean, "longValue", Integer.valueOf(5));
+        PropertyUtils.write(bean, "doubleValue", Float.valueOf(1.5f));
+        PropertyUtils.write(bean, "intValue", Character.valueOf('a'));
+
+        Assertions.assertEquals(5L, bean.getLongValue());
+        Assertions.assertEquals(1.5d, bean.getDoubleValue());
+        Assertions.assertEquals(97, bean.getIntValue());
+    }
+
+    @Test
+    public void testWriteRejectsNarrowingValue() {
+        PrimitiveBean bean = new PrimitiveBean();
+
+        Assertions.assertThrows(ReflectionException.class, () -> PropertyUtils.write(bean, "intValue", Long.valueOf(5)));
+    }
+
+    @Test
+    public void testWriteWrapperValue() {
+        PrimitiveBean bean = new PrimitiveBean();
+
+        PropertyUtils.write(bean, "longValue", Long.valueOf(7));
+
+        Assertions.assertEquals(7L, bean.getLongValue());
+    }
+
+    public static class PrimitiveBean {
+        private long longValue;
+        private double doubleValue;
+        private int intValue;
+
+        public long getLongValue() {
+            return longValue;
+        }
+
+        public void setLongValue(long longValue) {
+            this.longValue = longValue;
+        }
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public void setDoubleValue(double doubleValue) {
+            this.doubleValue = doubleValue;
+        }
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public void setIntValue(int intValue) {
+            this.intValue = intValue;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.github.braisdom.objsql.relation;
+
+import com.github.braisdom.objsql.BeanModelDescriptor;
+import com.github.braisdom.objsql.ConnectionFactory;
+import com.github.braisdom.objsql.Databases;
+import com.github.braisdom.objsql.DefaultSQLExecutor;
+import com.github.braisdom.objsql.SQLExecutor;
+import com.github.braisdom.objsql.TableRowAdapter;
+import com.github.braisdom.objsql.annotations.DomainModel;
+import com.github.braisdom.objsql.annotations.PrimaryKey;
+import com.github.braisdom.objsql.annotations.Relation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class RelationshipNetworkTest {
+
+    private static final Relationship HAS_MANY_ORDERS = Relationship.createRelation(Member.class, "orders");
+    private static final Relationship HAS_MANY_ADDRESSES = Relationship.createRelation(Member.class, "addresses");
+    private static final Relationship HAS_MANY_COUPONS = Relationship.createRelation(Member.class, "coupons");
+
+    private final Map<String, Connection> queriedConnections = new ConcurrentHashMap<>();
+    private final List<Connection> siblingConnections = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> queriedSqls = Collections.synchronizedList(new ArrayList<>());
+    private final List<Object[]> queriedParams = Collections.synchronizedList(new ArrayList<>());
+    private int originalRelationChunkSize;
+    private Connection connection;
+    private volatile CountDownLatch siblingsQueried = new CountDownLatch(0);
+    private volatile CountDownLatch connectionAvailable = new CountDownLatch(0);
+    private volatile String failedTable;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        originalRelationChunkSize = Databases.getRelationChunkSize();
+        connection = mockConnection("MySQL");
+        Databases.installConnectionFactory(dataSourceName -> {
+            awaitQuietly(connectionAvailable);
+            Connection siblingConnection = mockConnection("MySQL");
+            siblingConnections.add(siblingConnection);
+            return siblingConnection;
+        });
+
+        SQLExecutor sqlExecutor = mock(SQLExecutor.class);
+        when(sqlExecutor.query(any(Connection.class), anyString(), any(TableRowAdapter.class), anyVararg()))
+                .thenAnswer(invocation -> {
+                    Object[] arguments = invocation.getArguments();
+                    Connection queryConnection = (Connection) arguments[0];
+                    String tableName = ((String) arguments[1]).split(" ")[3];
+                    queriedSqls.add((String) arguments[1]);
+                    queriedParams.add(Arrays.copyOfRange(arguments, 3, arguments.length));
+                    queriedConnections.put(tableName, queryConnection);
+                    if (queryConnection == connection) {
+                        // The siblings are started before the first relationship is loaded
+                        awaitQuietly(siblingsQueried);
+                    } else {
+                        siblingsQueried.countDown();
+                    }
+                    if (tableName.equals(failedTable)) {
+                        throw new SQLException("Query failed");
+                    }
+                    return createRelatedObjects(tableName);
+                });
+        Databases.installSqlExecutor(sqlExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionAvailable.countDown();
+        Databases.installSqlExecutor(new DefaultSQLExecutor());
+        Databases.setRelationChunkSize(originalRelationChunkSize);
+    }
+
+    @Test
+    public void testSiblingsOnSeparateConnections() throws SQLException {
+        siblingsQueried = new CountDownLatch(2);
+        Member member = new Member(1L);
+
+        createNetwork().process(new ArrayList<>(Arrays.asList(member)),
+                new Relationship[]{HAS_MANY_ORDERS, HAS_MANY_ADDRESSES, HAS_MANY_COUPONS});
+
+        Assertions.assertSame(connection, queriedConnections.get("orders"));
+        Assertions.assertEquals(2, siblingConnections.size());
+        Assertions.assertTrue(siblingConnections.contains(queriedConnections.get("addresses")));
+        Assertions.assertTrue(siblingConnections.contains(queriedConnections.get("coupons")));
+        Assertions.assertNotSame(queriedConnections.get("addresses"), queriedConnections.get("coupons"));
+
+        Assertions.assertEquals(1, member.getOrders().size());
+        Assertions.assertEquals(1, member.getAddresses().size());
+        Assertions.assertEquals(1, member.getCoupons().size());
+        for (Connection siblingConnection : siblingConnections) {
+            verify(siblingConnection).close();
+        }
+    }
+
+    @Test
+    public void testSiblingConnectionsClosedWhenOneFails() throws SQLException {
+        siblingsQueried = new CountDownLatch(2);
+        failedTable = "addresses";
+
+        SQLException ex = Assertions.assertThrows(SQLException.class, () -> createNetwork().process(
+                new ArrayList<>(Arrays.asList(new Member(1L))),
+                new Relationship[]{HAS_MANY_ORDERS, HAS_MANY_ADDRESSES, HAS_MANY_COUPONS}));
+
+        Assertions.assertEquals("Query failed", ex.getMessage());
+        Assertions.assertEquals(2, siblingConnections.size());
+        for (Connection siblingConnection : siblingConnections) {
+            verify(siblingConnection).close();
+        }
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void testSiblingWithoutConnectionLoadedOnQueryConnection() throws SQLException {
+        connectionAvailable = new CountDownLatch(1);
+        Member member = new Member(1L);
+
+        createNetwork().process(new ArrayList<>(Arrays.asList(member)),
+                new Relationship[]{HAS_MANY_ORDERS, HAS_MANY_ADDRESSES});
+
+        Assertions.assertSame(connection, queriedConnections.get("orders"));
+        Assertions.assertSame(connection, queriedConnections.get("addresses"));
+        Assertions.assertEquals(1, member.getAddresses().size());
+
+        // The sibling gets its connection later, and closes it without querying
+        connectionAvailable.countDown();
+        Connection siblingConnection = awaitSiblingConnection();
+        verify(siblingConnection, timeout(10000)).close();
+        Assertions.assertFalse(queriedConnections.containsValue(siblingConnection));
+    }
+
+    @Test
+    public void testInListPaddedAndChunked() throws SQLException {
+        Databases.setRelationChunkSize(4);
+        RelationshipNetwork network = createNetwork();
+
+        network.queryObjects(Order.class, "member_id", keys(1), null);
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id IN (?) "), queriedSqls);
+        Assertions.assertArrayEquals(keys(1), queriedParams.get(0));
+
+        // chunk - 1 keys are padded to the chunk size by repeating the last key
+        clearQueries();
+        network.queryObjects(Order.class, "member_id", keys(3), null);
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id IN (?, ?, ?, ?) "),
+                queriedSqls);
+        Assertions.assertArrayEquals(new Object[]{1L, 2L, 3L, 3L}, queriedParams.get(0));
+
+        clearQueries();
+        network.queryObjects(Order.class, "member_id", keys(4), null);
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id IN (?, ?, ?, ?) "),
+                queriedSqls);
+        Assertions.assertArrayEquals(keys(4), queriedParams.get(0));
+
+        clearQueries();
+        network.queryObjects(Order.class, "member_id", keys(5), null);
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id IN (?, ?, ?, ?) ",
+                "SELECT * FROM orders WHERE  member_id IN (?) "), queriedSqls);
+        Assertions.assertArrayEquals(keys(4), queriedParams.get(0));
+        Assertions.assertArrayEquals(new Object[]{5L}, queriedParams.get(1));
+    }
+
+    @Test
+    public void testLastChunkFilledWithItsLastKey() throws SQLException {
+        Databases.setRelationChunkSize(8);
+
+        createNetwork().queryObjects(Order.class, "member_id", keys(11), "status = 1");
+
+        Assertions.assertEquals(Arrays.asList(
+                "SELECT * FROM orders WHERE  member_id IN (?, ?, ?, ?, ?, ?, ?, ?) AND (status = 1)",
+                "SELECT * FROM orders WHERE  member_id IN (?, ?, ?, ?) AND (status = 1)"), queriedSqls);
+        Assertions.assertArrayEquals(keys(8), queriedParams.get(0));
+        Assertions.assertArrayEquals(new Object[]{9L, 10L, 11L, 11L}, queriedParams.get(1));
+    }
+
+    @Test
+    public void testArrayBoundOnPostgreSQL() throws SQLException {
+        Connection postgreSQLConnection = mockConnection("PostgreSQL");
+        Array array = mock(Array.class);
+        when(postgreSQLConnection.createArrayOf(anyString(), any(Object[].class))).thenReturn(array);
+
+        createNetwork(postgreSQLConnection).queryObjects(Order.class, "member_id",
+                new Object[]{1L, null, 2L, 3L}, null);
+
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id = ANY(?) "), queriedSqls);
+        Assertions.assertArrayEquals(new Object[]{array}, queriedParams.get(0));
+        verify(postgreSQLConnection).createArrayOf("bigint", new Object[]{1L, 2L, 3L});
+        verify(array).free();
+    }
+
+    @Test
+    public void testInListForMixedOrStringKeysOnPostgreSQL() throws SQLException {
+        Databases.setRelationChunkSize(4);
+        Connection postgreSQLConnection = mockConnection("PostgreSQL");
+        RelationshipNetwork network = createNetwork(postgreSQLConnection);
+
+        network.queryObjects(Order.class, "member_id", new Object[]{1L, 2}, null);
+        network.queryObjects(Order.class, "member_id", new Object[]{"a", "b", "c"}, null);
+
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id IN (?, ?) ",
+                "SELECT * FROM orders WHERE  member_id IN (?, ?, ?, ?) "), queriedSqls);
+        Assertions.assertArrayEquals(new Object[]{1L, 2}, queriedParams.get(0));
+        Assertions.assertArrayEquals(new Object[]{"a", "b", "c", "c"}, queriedParams.get(1));
+        verify(postgreSQLConnection, never()).createArrayOf(anyString(), any(Object[].class));
+    }
+
+    @Test
+    public void testNullOrEmptyKeysNotQueried() throws SQLException {
+        RelationshipNetwork network = createNetwork();
+
+        Assertions.assertTrue(network.queryObjects(Order.class, "member_id", new Object[0], null).isEmpty());
+        Assertions.assertTrue(network.queryObjects(Order.class, "member_id",
+                new Object[]{null, null}, null).isEmpty());
+        Assertions.assertTrue(queriedSqls.isEmpty());
+
+        network.queryObjects(Order.class, "member_id", new Object[]{null, 1L, null, 2L}, null);
+        Assertions.assertEquals(Arrays.asList("SELECT * FROM orders WHERE  member_id IN (?, ?) "), queriedSqls);
+        Assertions.assertArrayEquals(new Object[]{1L, 2L}, queriedParams.get(0));
+    }
+
+    private RelationshipNetwork createNetwork() {
+        return new RelationshipNetwork(connection, BeanModelDescriptor.of(Member.class),
+                ConnectionFactory.DEFAULT_DATA_SOURCE_NAME, true);
+    }
+
+    private RelationshipNetwork createNetwork(Connection postgreSQLConnection) {
+        // The dialect is cached by the data source name
+        return new RelationshipNetwork(postgreSQLConnection, BeanModelDescriptor.of(Member.class),
+                "relationship_network_postgresql", true);
+    }
+
+    private void clearQueries() {
+        queriedSqls.clear();
+        queriedParams.clear();
+    }
+
+    private static Object[] keys(int count) {
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = i + 1L;
+        }
+        return keys;
+    }
+
+    private Connection awaitSiblingConnection() {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (siblingConnections.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        return siblingConnections.get(0);
+    }
+
+    private static List createRelatedObjects(String tableName) {
+        switch (tableName) {
+            case "orders":
+                return new ArrayList<>(Arrays.asList(new Order(10L, 1L)));
+            case "addresses":
+                return new ArrayList<>(Arrays.asList(new Address(20L, 1L)));
+            default:
+                return new ArrayList<>(Arrays.asList(new Coupon(30L, 1L)));
+        }
+    }
+
+    private static Connection mockConnection(String databaseName) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(databaseName);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        return connection;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @DomainModel(tableName = "members")
+    public static class Member {
+        @PrimaryKey
+        private Long id;
+
+        @Relation
+        private List<Order> orders;
+
+        @Relation
+        private List<Address> addresses;
+
+        @Relation
+        private List<Coupon> coupons;
+
+        public Member() {
+        }
+
+        public Member(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public List<Order> getOrders() {
+            return orders;
+        }
+
+        public void setOrders(List<Order> orders) {
+            this.orders = orders;
+        }
+
+        public List<Address> getAddresses() {
+            return addresses;
+        }
+
+        public void setAddresses(List<Address> addresses) {
+            this.addresses = addresses;
+        }
+
+        public List<Coupon> getCoupons() {
+            return coupons;
+        }
+
+        public void setCoupons(List<Coupon> coupons) {
+            this.coupons = coupons;
+        }
+    }
+
+    @DomainModel(tableName = "orders")
+    public static class Order {
+        @PrimaryKey
+        private Long id;
+        private Long memberId;
+
+        public Order() {
+        }
+
+        public Order(Long id, Long memberId) {
+            this.id = id;
+            this.memberId = memberId;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        public void setMemberId(Long memberId) {
+            this.memberId = memberId;
+        }
+    }
+
+    @DomainModel(tableName = "addresses")
+    public static class Address {
+        @PrimaryKey
+        private Long id;
+        private Long memberId;
+
+        public Address() {
+        }
+
+        public Address(Long id, Long memberId) {
+            this.id = id;
+            this.memberId = memberId;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        public void setMemberId(Long memberId) {
+            this.memberId = memberId;
+        }
+    }
+
+    @DomainModel(tableName = "coupons")
+    public static class Coupon {
+        @PrimaryKey
+        private Long id;
+        private Long memberId;
+
+        public Coupon() {
+        }
+
+        public Coupon(Long id, Long memberId) {
+            this.id = id;
+            this.memberId = memberId;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        public void setMemberId(Long memberId) {
+            this.memberId = memberId;
+        }
+    }
+}